@@ -0,0 +1,262 @@
+package com.example.demo.store;
+
+import com.example.demo.store.config.AsyncConfig;
+import com.example.demo.store.controller.AsyncOrderController;
+import com.example.demo.store.controller.OrderController;
+import com.example.demo.store.dto.OrderRequest;
+import com.example.demo.store.dto.PaymentType;
+import com.example.demo.store.model.Order;
+import com.example.demo.store.model.Product;
+import com.example.demo.store.model.User;
+import com.example.demo.store.repository.OrderRepository;
+import com.example.demo.store.repository.ProductRepository;
+import com.example.demo.store.repository.UserRepository;
+import com.example.demo.store.service.AsyncOrderService;
+import com.example.demo.store.service.OrderService;
+import com.example.demo.store.service.ProductPriceCache;
+import com.example.demo.store.service.RecentOrdersCache;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * So sánh POST /api/orders (blocking) với POST /api/orders/async khi có nhiều request đồng thời
+ * - Không cần MySQL: repository là stub (Proxy) có độ trễ dbLatencyMs và chỉ cho phép
+ *   dbPoolSize lời gọi cùng lúc (giống Hikari); thanh toán có độ trễ paymentLatencyMs
+ * - "Servlet container" = pool containerThreads thread (mặc định Tomcat = 200), hàng đợi không giới hạn
+ * - Mỗi op = 1 đợt `concurrency` đơn, gọi thẳng vào controller thật; đợt chỉ xong khi MỌI đơn đã hoàn tất
+ *   -> 2 mode làm cùng lượng việc, so sánh ms/op được (đơn/giây = concurrency / thời gian mỗi đợt)
+ * - Async: request bị 503 (backpressure) được client gửi lại sau backoff tăng dần có jitter
+ *   (1, 2, 4 ... tối đa 64 ms) cho tới khi được nhận, giống client thật
+ *
+ * Kết quả:
+ * - Thời gian mỗi đợt (ms/op)
+ * - containerBusyMs: tổng thời gian thread container bị giữ (async phải thấp hơn nhiều, kể cả các lần retry)
+ * - rejected: số response 503 (1 đơn có thể bị từ chối nhiều lần; chỉ có ở async)
+ * - failed: số đơn lỗi (không phải 503), phải bằng 0 thì kết quả mới có nghĩa
+ *
+ * Chạy: ./gradlew jmh -Pjmh.includes=OrderSubmissionBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+public class OrderSubmissionBenchmark {
+
+    @Param({"200", "1000", "5000"})
+    public int concurrency;
+
+    @Param({"2"})
+    public int dbLatencyMs;
+
+    @Param({"50"})
+    public int paymentLatencyMs;
+
+    @Param({"20", "200"})
+    public int paymentPoolSize;
+
+    private static final int CONTAINER_THREADS = 200;
+    private static final int DB_POOL_SIZE = 10;
+    private static final int MAX_IN_FLIGHT = 200;
+    private static final int MAX_BACKOFF_MS = 64;
+
+    private ExecutorService container;
+    private ScheduledExecutorService client; // hẹn giờ các lần retry sau 503
+    private ThreadPoolTaskExecutor dbExecutor;
+    private ThreadPoolTaskExecutor paymentExecutor;
+    private OrderController orderController;
+    private AsyncOrderController asyncOrderController;
+    private OrderRequest request;
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Counters {
+        public long containerBusyMs;
+        public long rejected;
+        public long failed;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Semaphore connections = new Semaphore(DB_POOL_SIZE);
+        Map<Long, Object> users = new HashMap<>();
+        users.put(1L, User.builder().id(1L).username("alice").email("alice@example.com").build());
+        Map<Long, Object> products = new HashMap<>();
+        for (long id = 1; id <= 3; id++) {
+            products.put(id, Product.builder().id(id).name("Product " + id).price(2500 * id).build());
+        }
+
+        UserRepository userRepository = stub(UserRepository.class, users, connections);
+        ProductRepository productRepository = stub(ProductRepository.class, products, connections);
+        OrderRepository orderRepository = stub(OrderRepository.class, new HashMap<>(), connections);
+
+        // Giả lập độ trễ của nhà cung cấp thanh toán
+        OrderService orderService = new OrderService(productRepository, orderRepository,
+                new RecentOrdersCache(10_000, 20), new ProductPriceCache(), 0) {
+            @Override
+            public Order applyPayment(Order order, PaymentType paymentType) {
+                sleep(paymentLatencyMs);
+                return super.applyPayment(order, paymentType);
+            }
+        };
+
+        AsyncConfig asyncConfig = new AsyncConfig();
+        dbExecutor = asyncConfig.dbExecutor(DB_POOL_SIZE, MAX_IN_FLIGHT);
+        paymentExecutor = asyncConfig.paymentExecutor(paymentPoolSize, MAX_IN_FLIGHT);
+        AsyncOrderService asyncOrderService = new AsyncOrderService(userRepository,
+                orderRepository, orderService, dbExecutor, paymentExecutor, MAX_IN_FLIGHT);
+
+        orderController = new OrderController(orderService, userRepository);
+        asyncOrderController = new AsyncOrderController(asyncOrderService);
+        container = Executors.newFixedThreadPool(CONTAINER_THREADS);
+        client = Executors.newSingleThreadScheduledExecutor();
+
+        request = new OrderRequest();
+        request.setUserId(1L);
+        request.setPaymentType(PaymentType.COD);
+        List<OrderRequest.Item> items = new ArrayList<>();
+        for (long id = 1; id <= 3; id++) {
+            OrderRequest.Item item = new OrderRequest.Item();
+            item.setProductId(id);
+            item.setQuantity(1);
+            items.add(item);
+        }
+        request.setItems(items);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        client.shutdownNow();
+        container.shutdownNow();
+        dbExecutor.shutdown();
+        paymentExecutor.shutdown();
+    }
+
+    @Benchmark
+    public void blocking(Counters counters) throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(concurrency);
+        AtomicLong busyNanos = new AtomicLong();
+        AtomicLong failed = new AtomicLong();
+        for (int i = 0; i < concurrency; i++) {
+            container.execute(() -> {
+                long start = System.nanoTime();
+                try {
+                    orderController.create(request);
+                } catch (RuntimeException e) {
+                    failed.incrementAndGet();
+                } finally {
+                    busyNanos.addAndGet(System.nanoTime() - start);
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+        counters.containerBusyMs += TimeUnit.NANOSECONDS.toMillis(busyNanos.get());
+        counters.failed += failed.get();
+    }
+
+    @Benchmark
+    public void async(Counters counters) throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(concurrency);
+        AtomicLong busyNanos = new AtomicLong();
+        AtomicLong rejected = new AtomicLong();
+        AtomicLong failed = new AtomicLong();
+        for (int i = 0; i < concurrency; i++) {
+            submitAsync(1, done, busyNanos, rejected, failed);
+        }
+        done.await();
+        counters.containerBusyMs += TimeUnit.NANOSECONDS.toMillis(busyNanos.get());
+        counters.rejected += rejected.get();
+        counters.failed += failed.get();
+    }
+
+    // Gửi 1 đơn async; bị 503 thì hẹn gửi lại sau backoff -> latch chỉ giảm khi đơn đã hoàn tất
+    private void submitAsync(int backoffMs, CountDownLatch done,
+                             AtomicLong busyNanos, AtomicLong rejected, AtomicLong failed) {
+        container.execute(() -> {
+            long start = System.nanoTime();
+            try {
+                // Thread container chỉ bị giữ tới khi pipeline nhận request
+                asyncOrderController.create(request).whenComplete((response, error) -> {
+                    if (error != null) {
+                        failed.incrementAndGet();
+                    }
+                    done.countDown();
+                });
+            } catch (ResponseStatusException e) {
+                rejected.incrementAndGet();
+                long delay = ThreadLocalRandom.current().nextLong(backoffMs / 2, backoffMs + 1);
+                client.schedule(() -> submitAsync(Math.min(backoffMs * 2, MAX_BACKOFF_MS),
+                        done, busyNanos, rejected, failed), delay, TimeUnit.MILLISECONDS);
+            } finally {
+                busyNanos.addAndGet(System.nanoTime() - start);
+            }
+        });
+    }
+
+    // Repository giả: findById / findAllById / save, có độ trễ và giới hạn số "connection"
+    @SuppressWarnings("unchecked")
+    private <T> T stub(Class<T> type, Map<Long, Object> rows, Semaphore connections) {
+        AtomicLong ids = new AtomicLong();
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "toString": return type.getSimpleName() + "Stub";
+                case "hashCode": return System.identityHashCode(proxy);
+                case "equals": return proxy == args[0];
+                default: break;
+            }
+            connections.acquire();
+            try {
+                sleep(dbLatencyMs);
+                switch (method.getName()) {
+                    case "findById":
+                        return Optional.ofNullable(rows.get((Long) args[0]));
+                    case "findAllById": {
+                        List<Object> found = new ArrayList<>();
+                        for (Object id : (Iterable<?>) args[0]) {
+                            Object row = rows.get((Long) id);
+                            if (row != null) {
+                                found.add(row);
+                            }
+                        }
+                        return found;
+                    }
+                    case "save": {
+                        if (args[0] instanceof Order order && order.getId() == null) {
+                            order.setId(ids.incrementAndGet());
+                        }
+                        return args[0];
+                    }
+                    default:
+                        throw new UnsupportedOperationException(type.getSimpleName() + "." + method.getName());
+                }
+            } finally {
+                connections.release();
+            }
+        });
+    }
+
+    private static void sleep(int millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
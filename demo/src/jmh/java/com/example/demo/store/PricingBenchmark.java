@@ -0,0 +1,113 @@
+package com.example.demo.store;
+
+import com.example.demo.store.builder.OrderBuilder;
+import com.example.demo.store.dto.PaymentType;
+import com.example.demo.store.model.Order;
+import com.example.demo.store.model.OrderItem;
+import com.example.demo.store.model.Product;
+import com.example.demo.store.model.User;
+import com.example.demo.store.pricing.PricingEngine;
+import com.example.demo.store.service.OrderService;
+import com.example.demo.store.service.ProductPriceCache;
+import com.example.demo.store.service.RecentOrdersCache;
+import com.example.demo.store.util.UniqueIdGenerator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Chi phí dựng + tính giá 1 order (B1-B3 của checkout, không DB, không thanh toán) theo số dòng trong giỏ
+ * - Cấp phát mỗi order: xem cột gc.alloc.rate.norm (B/op), profiler gc bật sẵn trong build.gradle
+ * - checkout: đường thật OrderService.priceLines + buildOrder (snapshot giá, setter, PricingEngine, UUID, OrderBuilder)
+ * - legacyCheckout: cùng các bước theo code cũ (Lombok builder mỗi dòng + cộng double)
+ *   -> 2 benchmark trên so sánh được với nhau
+ * - engineOnlyPrimitiveArrays: chỉ PricingEngine.price trên mảng primitive (không dựng order),
+ *   để xem riêng chi phí phép tính, KHÔNG so sánh trực tiếp với 2 benchmark trên
+ *
+ * Chạy: ./gradlew jmh -Pjmh.includes=PricingBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PricingBenchmark {
+
+    @Param({"1", "10", "100", "1000"})
+    public int lines;
+
+    private static final int TAX_BPS = 1000; // 10%
+
+    private OrderService orderService;
+    private User user;
+    private List<Product> products;   // product đã đọc từ DB
+    private int[] quantities;
+    private double[] legacyPrices;    // giá kiểu double như code cũ
+    private long[] unitPrices;
+    private int[] discountBps;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Chỉ dùng priceLines + buildOrder -> không cần repository
+        orderService = new OrderService(null, null, new RecentOrdersCache(1, 1), new ProductPriceCache(), TAX_BPS);
+        user = User.builder().id(1L).username("alice").email("alice@example.com").build();
+
+        products = new ArrayList<>(lines);
+        quantities = new int[lines];
+        legacyPrices = new double[lines];
+        unitPrices = new long[lines];
+        discountBps = new int[lines];
+        for (int i = 0; i < lines; i++) {
+            unitPrices[i] = 199 + i * 37L;
+            quantities[i] = 1 + i % 5;
+            discountBps[i] = (i % 4) * 500;
+            legacyPrices[i] = unitPrices[i] / 100.0;
+            products.add(Product.builder().id((long) i).name("P" + i).price(unitPrices[i]).build());
+        }
+    }
+
+    @Benchmark
+    public Order checkout() {
+        List<OrderItem> items = orderService.priceLines(products, quantities);
+        return orderService.buildOrder(user, items, PaymentType.COD);
+    }
+
+    @Benchmark
+    public Order legacyCheckout() {
+        double total = 0;
+        List<OrderItem> processedItems = new ArrayList<>();
+
+        // B1: builder cho mỗi dòng, cộng tổng bằng double
+        for (int i = 0; i < lines; i++) {
+            Product product = products.get(i);
+            OrderItem copy = OrderItem.builder()
+                    .product(product)
+                    .quantity(quantities[i])
+                    .price(product.getPrice())
+                    .build();
+            processedItems.add(copy);
+            total += legacyPrices[i] * quantities[i];
+        }
+        total += total * TAX_BPS / PricingEngine.BPS;
+
+        // B2 + B3: externalId + OrderBuilder như code cũ
+        // (đổi double -> minor units ở cuối chỉ vì OrderBuilder giờ nhận long)
+        OrderBuilder builder = new OrderBuilder()
+                .withExternalId(UniqueIdGenerator.getInstance().generate())
+                .withUser(user)
+                .withPaymentType(PaymentType.COD)
+                .withTotal(Math.round(total * 100));
+        for (OrderItem it : processedItems) {
+            builder.addItem(it);
+        }
+        Order order = builder.build();
+        order.setUser(user);
+        order.setStatus("CREATED");
+        return order;
+    }
+
+    @Benchmark
+    public long engineOnlyPrimitiveArrays() {
+        return PricingEngine.price(unitPrices, quantities, discountBps, lines, TAX_BPS);
+    }
+}
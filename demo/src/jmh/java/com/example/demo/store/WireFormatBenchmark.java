@@ -0,0 +1,93 @@
+package com.example.demo.store;
+
+import com.example.demo.store.dto.OrderView;
+import com.example.demo.store.model.Order;
+import com.example.demo.store.model.OrderItem;
+import com.example.demo.store.model.Product;
+import com.example.demo.store.model.User;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+/**
+ * So sánh JSON entity (GET /api/orders hiện tại) với view phẳng JSON/CBOR/Smile
+ * - Thời gian serialize: kết quả JMH (µs/op)
+ * - Số byte trên đường truyền (thô và gzip): in ra một lần ở @Setup
+ *
+ * Chạy: ./gradlew jmh -Pjmh.includes=WireFormatBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class WireFormatBenchmark {
+
+    @Param({"1", "100", "1000"})
+    public int orders;
+
+    private final ObjectMapper json = new ObjectMapper();
+    private final CBORMapper cbor = new CBORMapper();
+    private final SmileMapper smile = new SmileMapper();
+
+    private List<Order> entities;
+    private List<OrderView> views;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        User user = User.builder().id(1L).username("alice").email("alice@example.com").build();
+        entities = new ArrayList<>();
+        views = new ArrayList<>();
+        for (int i = 0; i < orders; i++) {
+            List<OrderItem> items = new ArrayList<>();
+            for (int j = 0; j < 3; j++) {
+                Product product = Product.builder().id((long) j + 1).name("Product " + (j + 1)).price(2500L * (j + 1)).build();
+                items.add(OrderItem.builder().id((long) i * 3 + j).product(product).quantity(j + 1).price(product.getPrice()).build());
+            }
+            Order order = Order.builder().id((long) i).externalId("ext-" + i).total(35000L).status("PAID").user(user).items(items).build();
+            entities.add(order);
+            views.add(OrderView.from(order));
+        }
+
+        System.out.printf("%n[orders=%d] entity JSON: %d B (gzip %d B) | view JSON: %d B (gzip %d B) | view CBOR: %d B (gzip %d B) | view Smile: %d B (gzip %d B)%n",
+                orders,
+                entityJson().length, gzip(entityJson()).length,
+                viewJson().length, gzip(viewJson()).length,
+                viewCbor().length, gzip(viewCbor()).length,
+                viewSmile().length, gzip(viewSmile()).length);
+    }
+
+    @Benchmark
+    public byte[] entityJson() throws IOException {
+        return json.writeValueAsBytes(entities);
+    }
+
+    @Benchmark
+    public byte[] viewJson() throws IOException {
+        return json.writeValueAsBytes(views);
+    }
+
+    @Benchmark
+    public byte[] viewCbor() throws IOException {
+        return cbor.writeValueAsBytes(views);
+    }
+
+    @Benchmark
+    public byte[] viewSmile() throws IOException {
+        return smile.writeValueAsBytes(views);
+    }
+
+    private static byte[] gzip(byte[] raw) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gz = new GZIPOutputStream(out)) {
+            gz.write(raw);
+        }
+        return out.toByteArray();
+    }
+}
@@ -24,9 +24,10 @@ public class DataLoader implements CommandLineRunner {
     @Override
     public void run(String... args) throws Exception {
         if (productRepository.count() == 0) {
-            Product p1 = new Product(); p1.setName("Keyboard"); p1.setPrice(25.0);
-            Product p2 = new Product(); p2.setName("Mouse"); p2.setPrice(15.0);
-            Product p3 = new Product(); p3.setName("Monitor"); p3.setPrice(150.0);
+            // Giá theo minor units: 2500 = 25.00
+            Product p1 = new Product(); p1.setName("Keyboard"); p1.setPrice(2500);
+            Product p2 = new Product(); p2.setName("Mouse"); p2.setPrice(1500);
+            Product p3 = new Product(); p3.setName("Monitor"); p3.setPrice(15000);
             productRepository.save(p1); productRepository.save(p2); productRepository.save(p3);
         }
 
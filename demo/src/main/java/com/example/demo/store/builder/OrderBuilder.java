@@ -1,5 +1,6 @@
 package com.example.demo.store.builder;
 
+import com.example.demo.store.dto.PaymentType;
 import com.example.demo.store.model.Order;
 import com.example.demo.store.model.OrderItem;
 import com.example.demo.store.model.User;
@@ -34,14 +35,21 @@ public class OrderBuilder {
         return this;
     }
 
+    // Gắn phương thức thanh toán cho Order
+    public OrderBuilder withPaymentType(PaymentType paymentType) {
+        order.setPaymentType(paymentType);
+        return this;
+    }
+
     // Thêm 1 item vào danh sách OrderItem
     public OrderBuilder addItem(OrderItem item) {
+        item.setOrder(order);   // gắn chiều ngược lại -> cột order_items.order_id được lưu
         order.getItems().add(item);
         return this;
     }
 
-    // Gắn tổng tiền cho Order
-    public OrderBuilder withTotal(double total) {
+    // Gắn tổng tiền cho Order (minor units, xem util.Money)
+    public OrderBuilder withTotal(long total) {
         order.setTotal(total);
         return this;
     }
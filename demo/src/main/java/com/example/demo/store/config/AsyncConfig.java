@@ -0,0 +1,41 @@
+package com.example.demo.store.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Thread pool cho luồng đặt hàng bất đồng bộ (POST /api/orders/async)
+ * - dbExecutor: số thread = số connection của Hikari -> không thread nào phải đứng chờ connection
+ * - paymentExecutor: giới hạn số lời gọi đồng thời sang nhà cung cấp thanh toán
+ * - Hàng đợi có giới hạn, khớp với store.async.max-in-flight (xem AsyncOrderService)
+ */
+@Configuration
+public class AsyncConfig {
+
+    @Bean(name = "dbExecutor")
+    public ThreadPoolTaskExecutor dbExecutor(
+            @Value("${spring.datasource.hikari.maximum-pool-size:10}") int poolSize,
+            @Value("${store.async.max-in-flight:200}") int queueCapacity) {
+        return executor("order-db-", poolSize, queueCapacity);
+    }
+
+    @Bean(name = "paymentExecutor")
+    public ThreadPoolTaskExecutor paymentExecutor(
+            @Value("${store.async.payment.pool-size:20}") int poolSize,
+            @Value("${store.async.max-in-flight:200}") int queueCapacity) {
+        return executor("order-payment-", poolSize, queueCapacity);
+    }
+
+    private ThreadPoolTaskExecutor executor(String prefix, int poolSize, int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix(prefix);
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);  // queue đầy -> TaskRejectedException (không chặn thread gọi)
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.initialize();
+        return executor;
+    }
+}
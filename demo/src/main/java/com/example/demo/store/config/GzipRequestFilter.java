@@ -0,0 +1,140 @@
+package com.example.demo.store.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Giải nén body request khi client gửi "Content-Encoding: gzip" lên POST /api/orders và POST /api/orders/async
+ * - Nén response đã có sẵn qua server.compression.* (application.properties)
+ * - Cả 2 endpoint đều đọc @RequestBody bằng getInputStream() blocking trên thread container
+ *   (Spring MVC đọc body trước khi gọi handler, kể cả handler trả về CompletableFuture)
+ *   -> GZIPInputStream đọc đồng bộ là đủ, không ai đăng ký ReadListener
+ * - Giới hạn kích thước sau giải nén (store.request.max-inflated-bytes) để tránh "zip bomb"
+ */
+@Component
+public class GzipRequestFilter extends OncePerRequestFilter {
+
+    private final long maxInflatedBytes;
+
+    public GzipRequestFilter(@Value("${store.request.max-inflated-bytes:10485760}") long maxInflatedBytes) {
+        this.maxInflatedBytes = maxInflatedBytes;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        // Chỉ áp dụng cho POST /api/orders và /api/orders/async có body gzip
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return !"POST".equals(request.getMethod())
+                || !(path.equals("/api/orders") || path.equals("/api/orders/async"))
+                || !"gzip".equalsIgnoreCase(request.getHeader("Content-Encoding"));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        chain.doFilter(new InflatedRequest(request, maxInflatedBytes), response);
+    }
+
+    // Request wrapper: trả về stream đã giải nén, ẩn Content-Encoding/Content-Length gốc
+    private static class InflatedRequest extends HttpServletRequestWrapper {
+        private final long maxBytes;
+        private ServletInputStream stream;
+
+        InflatedRequest(HttpServletRequest request, long maxBytes) {
+            super(request);
+            this.maxBytes = maxBytes;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() throws IOException {
+            if (stream == null) {
+                stream = new InflatedInputStream(new GZIPInputStream(super.getInputStream()), maxBytes);
+            }
+            return stream;
+        }
+
+        @Override
+        public String getHeader(String name) {
+            if ("Content-Encoding".equalsIgnoreCase(name) || "Content-Length".equalsIgnoreCase(name)) {
+                return null;
+            }
+            return super.getHeader(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaders(String name) {
+            if ("Content-Encoding".equalsIgnoreCase(name) || "Content-Length".equalsIgnoreCase(name)) {
+                return Collections.emptyEnumeration();
+            }
+            return super.getHeaders(name);
+        }
+
+        @Override
+        public int getContentLength() { return -1; }
+
+        @Override
+        public long getContentLengthLong() { return -1; }
+    }
+
+    private static class InflatedInputStream extends ServletInputStream {
+        private final InputStream in;
+        private final long maxBytes;
+        private long read;
+        private boolean finished;
+
+        InflatedInputStream(InputStream in, long maxBytes) {
+            this.in = in;
+            this.maxBytes = maxBytes;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = in.read();
+            if (b < 0) { finished = true; } else { count(1); }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buf, int off, int len) throws IOException {
+            int n = in.read(buf, off, len);
+            if (n < 0) { finished = true; } else { count(n); }
+            return n;
+        }
+
+        private void count(int n) throws IOException {
+            read += n;
+            if (read > maxBytes) {
+                throw new IOException("Inflated request body exceeds " + maxBytes + " bytes");
+            }
+        }
+
+        @Override
+        public void close() throws IOException { in.close(); }
+
+        @Override
+        public boolean isFinished() { return finished; }
+
+        @Override
+        public boolean isReady() { return true; }
+
+        // Spring MVC đọc @RequestBody bằng read() blocking -> không ai đăng ký ReadListener
+        @Override
+        public void setReadListener(ReadListener listener) {
+            throw new IllegalStateException("Non-blocking read is not supported for gzip request bodies");
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.demo.store.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Bật @Scheduled cho các job nền (OrderReconciliationJob)
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,15 @@
+package com.example.demo.store.config;
+
+import org.springframework.http.MediaType;
+
+/**
+ * Media type nhị phân cho traffic nội bộ (service-to-service)
+ * - Converter CBOR/Smile được Spring MVC tự đăng ký khi có jackson-dataformat-cbor/smile trên classpath
+ * - Client gửi "Accept: application/cbor" hoặc "Accept: application/x-jackson-smile" để nhận view phẳng
+ */
+public final class WireFormats {
+    public static final String CBOR_VALUE = MediaType.APPLICATION_CBOR_VALUE;   // application/cbor
+    public static final String SMILE_VALUE = "application/x-jackson-smile";
+
+    private WireFormats() { }
+}
@@ -0,0 +1,32 @@
+package com.example.demo.store.controller;
+
+import com.example.demo.store.dto.OrderRequest;
+import com.example.demo.store.dto.OrderView;
+import com.example.demo.store.service.AsyncOrderService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * API đặt hàng bất đồng bộ, chạy song song với POST /api/orders (blocking)
+ * - Trả về CompletableFuture -> Spring MVC giải phóng thread servlet, response được ghi khi pipeline xong
+ * - Hệ thống quá tải -> 503 Service Unavailable
+ */
+@RestController
+@RequestMapping("/api/orders/async")
+public class AsyncOrderController {
+
+    private final AsyncOrderService asyncOrderService;
+
+    public AsyncOrderController(AsyncOrderService asyncOrderService) {
+        this.asyncOrderService = asyncOrderService;
+    }
+
+    // Endpoint POST: tạo order mới (cùng body OrderRequest với POST /api/orders)
+    @PostMapping
+    public CompletableFuture<ResponseEntity<OrderView>> create(@RequestBody OrderRequest request) {
+        return asyncOrderService.submit(request)
+                .thenApply(order -> ResponseEntity.ok(OrderView.from(order)));
+    }
+}
@@ -1,10 +1,20 @@
 package com.example.demo.store.controller;
 
+import com.example.demo.store.config.WireFormats;
+import com.example.demo.store.dto.BulkPriceUpdateResult;
+import com.example.demo.store.dto.ProductView;
 import com.example.demo.store.model.Product;
 import com.example.demo.store.repository.ProductRepository;
+import com.example.demo.store.service.BulkPriceUpdateService;
+import com.example.demo.store.service.ProductPriceCache;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.List;
 
 @RestController
@@ -14,12 +24,28 @@ public class ProductController {
     @Autowired
     private ProductRepository productRepository;
 
+    @Autowired
+    private ProductPriceCache productPriceCache;
+
+    @Autowired
+    private BulkPriceUpdateService bulkPriceUpdateService;
+
     // GET all products
     @GetMapping
     public List<Product> getAllProducts() {
         return productRepository.findAll();
     }
 
+    // GET all products (Accept: CBOR/Smile) -> view phẳng dạng nhị phân
+    @GetMapping(produces = {WireFormats.CBOR_VALUE, WireFormats.SMILE_VALUE})
+    public List<ProductView> getAllProductsCompact() {
+        List<ProductView> views = new ArrayList<>();
+        for (Product product : productRepository.findAll()) {
+            views.add(ProductView.from(product));
+        }
+        return views;
+    }
+
     // GET product by id
     @GetMapping("/{id}")
     public Product getProductById(@PathVariable Long id) {
@@ -38,14 +64,37 @@ public class ProductController {
         return productRepository.findById(id).map(product -> {
             product.setName(productDetails.getName());
             product.setPrice(productDetails.getPrice());
-            return productRepository.save(product);
+            Product saved = productRepository.save(product);
+            productPriceCache.evict(id); // order sau sẽ đọc giá mới
+            return saved;
         }).orElse(null);
     }
 
+    // BULK UPDATE prices: body là mảng JSON [{"productId": 1, "price": 19.99}, ...]
+    @PostMapping(value = "/prices", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public BulkPriceUpdateResult bulkUpdatePrices(InputStream body) throws IOException {
+        return bulkPriceUpdateService.updateFromJson(body);
+    }
+
+    // BULK UPDATE prices: body là file CSV "productId,price" (stream trực tiếp)
+    @PostMapping(value = "/prices", consumes = "text/csv")
+    public BulkPriceUpdateResult bulkUpdatePricesCsv(InputStream body) throws IOException {
+        return bulkPriceUpdateService.updateFromCsv(body);
+    }
+
+    // BULK UPDATE prices: upload file CSV qua multipart (field "file")
+    @PostMapping(value = "/prices", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public BulkPriceUpdateResult bulkUpdatePricesFile(@RequestParam("file") MultipartFile file) throws IOException {
+        try (InputStream in = file.getInputStream()) {
+            return bulkPriceUpdateService.updateFromCsv(in);
+        }
+    }
+
     // DELETE product
     @DeleteMapping("/{id}")
     public String deleteProduct(@PathVariable Long id) {
         productRepository.deleteById(id);
+        productPriceCache.evict(id);
         return "Product deleted with id " + id;
     }
 }
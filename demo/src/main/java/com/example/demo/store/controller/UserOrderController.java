@@ -0,0 +1,32 @@
+package com.example.demo.store.controller;
+
+import com.example.demo.store.dto.OrderPage;
+import com.example.demo.store.service.OrderService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/users")
+public class UserOrderController {
+
+    private static final int MAX_LIMIT = 100;
+
+    private final OrderService orderService;
+
+    public UserOrderController(OrderService orderService) {
+        this.orderService = orderService;
+    }
+
+    /**
+     * GET /api/users/{id}/orders?cursor=&limit=20
+     * @param cursor nextCursor của trang trước (bỏ trống để lấy trang đầu)
+     * @param limit số order mỗi trang (1..100)
+     */
+    @GetMapping("/{id}/orders")
+    public ResponseEntity<OrderPage> getOrders(@PathVariable Long id,
+                                               @RequestParam(value = "cursor", required = false) Long cursor,
+                                               @RequestParam(value = "limit", defaultValue = "20") int limit) {
+        int size = Math.max(1, Math.min(limit, MAX_LIMIT));
+        return ResponseEntity.ok(orderService.getOrderHistory(id, cursor, size));
+    }
+}
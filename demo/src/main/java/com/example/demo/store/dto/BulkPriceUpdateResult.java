@@ -0,0 +1,67 @@
+package com.example.demo.store.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Kết quả cập nhật giá hàng loạt
+ * - received = updated + duplicates + failed (khi applied)
+ * - duplicates: số dòng bị bỏ vì cùng product xuất hiện lại ở dòng sau (dòng sau thắng)
+ * - failures: lỗi theo từng dòng (row bắt đầu từ 1), tối đa MAX_FAILURES dòng; failed là tổng số dòng lỗi
+ * - applied: true nếu các dòng hợp lệ đã được ghi xuống DB (tất cả cùng lúc);
+ *   false nếu batch bị hủy (input hỏng, lỗi DB) -> không có giá nào thay đổi
+ */
+public class BulkPriceUpdateResult {
+    public static final int MAX_FAILURES = 1000;
+
+    private int received;
+    private int updated;
+    private int duplicates;
+    private int failed;
+    private boolean applied;
+    private List<Failure> failures = new ArrayList<>();
+
+    public static class Failure {
+        private int row;
+        private Long productId;
+        private String reason;
+
+        public Failure() {}
+        public Failure(int row, Long productId, String reason) {
+            this.row = row; this.productId = productId; this.reason = reason;
+        }
+
+        public int getRow() { return row; }
+        public void setRow(int row) { this.row = row; }
+        public Long getProductId() { return productId; }
+        public void setProductId(Long productId) { this.productId = productId; }
+        public String getReason() { return reason; }
+        public void setReason(String reason) { this.reason = reason; }
+    }
+
+    // Ghi nhận 1 dòng lỗi
+    public void addFailure(int row, Long productId, String reason) {
+        failed++;
+        if (failures.size() < MAX_FAILURES) {
+            failures.add(new Failure(row, productId, reason));
+        }
+    }
+
+    public int getReceived() { return received; }
+    public void setReceived(int received) { this.received = received; }
+
+    public int getUpdated() { return updated; }
+    public void setUpdated(int updated) { this.updated = updated; }
+
+    public int getDuplicates() { return duplicates; }
+    public void setDuplicates(int duplicates) { this.duplicates = duplicates; }
+
+    public int getFailed() { return failed; }
+    public void setFailed(int failed) { this.failed = failed; }
+
+    public boolean isApplied() { return applied; }
+    public void setApplied(boolean applied) { this.applied = applied; }
+
+    public List<Failure> getFailures() { return failures; }
+    public void setFailures(List<Failure> failures) { this.failures = failures; }
+}
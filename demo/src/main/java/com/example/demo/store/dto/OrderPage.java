@@ -0,0 +1,23 @@
+package com.example.demo.store.dto;
+
+import java.util.List;
+
+/**
+ * 1 trang lịch sử đơn hàng (mới nhất trước)
+ * - nextCursor: truyền vào ?cursor= để lấy trang tiếp theo; null nếu đã hết
+ */
+public class OrderPage {
+    private List<OrderSummary> items;
+    private Long nextCursor;
+
+    public OrderPage() {}
+    public OrderPage(List<OrderSummary> items, Long nextCursor) {
+        this.items = items; this.nextCursor = nextCursor;
+    }
+
+    public List<OrderSummary> getItems() { return items; }
+    public void setItems(List<OrderSummary> items) { this.items = items; }
+
+    public Long getNextCursor() { return nextCursor; }
+    public void setNextCursor(Long nextCursor) { this.nextCursor = nextCursor; }
+}
@@ -0,0 +1,41 @@
+package com.example.demo.store.dto;
+
+import com.example.demo.store.util.MoneyJson;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.time.LocalDateTime;
+
+/**
+ * Tóm tắt 1 order cho trang lịch sử đơn hàng (không kèm items/user)
+ * - Được tạo trực tiếp trong JPQL (select new ...) -> không load entity graph
+ */
+public class OrderSummary {
+    private Long id;
+    private String externalId;
+    @JsonSerialize(using = MoneyJson.Serializer.class)
+    @JsonDeserialize(using = MoneyJson.Deserializer.class)
+    private long total; // minor units
+    private String status;
+    private LocalDateTime createdAt;
+
+    public OrderSummary() {}
+    public OrderSummary(Long id, String externalId, Long total, String status, LocalDateTime createdAt) {
+        this.id = id; this.externalId = externalId; this.total = total; this.status = status; this.createdAt = createdAt;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getExternalId() { return externalId; }
+    public void setExternalId(String externalId) { this.externalId = externalId; }
+
+    public long getTotal() { return total; }
+    public void setTotal(long total) { this.total = total; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
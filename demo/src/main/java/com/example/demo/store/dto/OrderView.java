@@ -0,0 +1,89 @@
+package com.example.demo.store.dto;
+
+import com.example.demo.store.model.Order;
+import com.example.demo.store.model.OrderItem;
+import com.example.demo.store.util.MoneyJson;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * View phẳng của Order để trả về client
+ * - Không chứa graph entity (User.orders, Product.orderItems...) -> không lazy load, không vòng lặp khi serialize
+ */
+public class OrderView {
+    private Long id;
+    private String externalId;
+    @JsonSerialize(using = MoneyJson.Serializer.class)
+    @JsonDeserialize(using = MoneyJson.Deserializer.class)
+    private long total; // minor units
+    private String status;
+    private Long userId;
+    private List<Line> items;
+
+    public static class Line {
+        private Long productId;
+        private int quantity;
+        @JsonSerialize(using = MoneyJson.Serializer.class)
+        @JsonDeserialize(using = MoneyJson.Deserializer.class)
+        private long price; // minor units
+
+        public Line() {}
+        public Line(Long productId, int quantity, long price) {
+            this.productId = productId; this.quantity = quantity; this.price = price;
+        }
+
+        public Long getProductId() { return productId; }
+        public void setProductId(Long productId) { this.productId = productId; }
+        public int getQuantity() { return quantity; }
+        public void setQuantity(int quantity) { this.quantity = quantity; }
+        public long getPrice() { return price; }
+        public void setPrice(long price) { this.price = price; }
+    }
+
+    public OrderView() {}
+
+    // Dùng trong JPQL (select new ...) -> items được gắn sau
+    public OrderView(Long id, String externalId, Long total, String status, Long userId) {
+        this.id = id; this.externalId = externalId; this.total = total; this.status = status; this.userId = userId;
+        this.items = new ArrayList<>();
+    }
+
+    // Chuyển từ entity Order sang view
+    public static OrderView from(Order order) {
+        OrderView view = new OrderView();
+        view.id = order.getId();
+        view.externalId = order.getExternalId();
+        view.total = order.getTotal();
+        view.status = order.getStatus();
+        view.userId = order.getUser() != null ? order.getUser().getId() : null;
+        view.items = new ArrayList<>();
+        if (order.getItems() != null) {
+            for (OrderItem it : order.getItems()) {
+                Long productId = it.getProduct() != null ? it.getProduct().getId() : null;
+                view.items.add(new Line(productId, it.getQuantity(), it.getPrice()));
+            }
+        }
+        return view;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getExternalId() { return externalId; }
+    public void setExternalId(String externalId) { this.externalId = externalId; }
+
+    public long getTotal() { return total; }
+    public void setTotal(long total) { this.total = total; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+
+    public List<Line> getItems() { return items; }
+    public void setItems(List<Line> items) { this.items = items; }
+}
@@ -0,0 +1,34 @@
+package com.example.demo.store.dto;
+
+import com.example.demo.store.model.Product;
+import com.example.demo.store.util.MoneyJson;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+/**
+ * View phẳng của Product (không kèm danh sách orderItems)
+ */
+public class ProductView {
+    private Long id;
+    private String name;
+    @JsonSerialize(using = MoneyJson.Serializer.class)
+    @JsonDeserialize(using = MoneyJson.Deserializer.class)
+    private long price; // minor units
+
+    public ProductView() {}
+    public ProductView(Long id, String name, long price) {
+        this.id = id; this.name = name; this.price = price;
+    }
+
+    // Chuyển từ entity Product sang view
+    public static ProductView from(Product product) {
+        return new ProductView(product.getId(), product.getName(), product.getPrice());
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+    public long getPrice() { return price; }
+    public void setPrice(long price) { this.price = price; }
+}
@@ -0,0 +1,51 @@
+package com.example.demo.store.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Các cột job reconciliation cần cho 1 order (không load entity Order/User/items)
+ * - Được tạo trực tiếp trong JPQL (select new ...)
+ */
+public class ReconcileCandidate {
+    private Long id;
+    private long total; // minor units
+    private PaymentType paymentType;
+    private String status;
+    private LocalDateTime createdAt;
+    private Long userId;
+    private int paymentAttempts;
+    private LocalDateTime lastAttemptAt;
+
+    public ReconcileCandidate() {}
+    public ReconcileCandidate(Long id, Long total, PaymentType paymentType, String status, LocalDateTime createdAt,
+                              Long userId, Integer paymentAttempts, LocalDateTime lastAttemptAt) {
+        this.id = id; this.total = total; this.paymentType = paymentType; this.status = status;
+        this.createdAt = createdAt; this.userId = userId;
+        this.paymentAttempts = paymentAttempts != null ? paymentAttempts : 0; // order cũ chưa có cột này
+        this.lastAttemptAt = lastAttemptAt;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public long getTotal() { return total; }
+    public void setTotal(long total) { this.total = total; }
+
+    public PaymentType getPaymentType() { return paymentType; }
+    public void setPaymentType(PaymentType paymentType) { this.paymentType = paymentType; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+
+    public int getPaymentAttempts() { return paymentAttempts; }
+    public void setPaymentAttempts(int paymentAttempts) { this.paymentAttempts = paymentAttempts; }
+
+    public LocalDateTime getLastAttemptAt() { return lastAttemptAt; }
+    public void setLastAttemptAt(LocalDateTime lastAttemptAt) { this.lastAttemptAt = lastAttemptAt; }
+}
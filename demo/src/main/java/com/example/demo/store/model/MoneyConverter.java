@@ -0,0 +1,26 @@
+package com.example.demo.store.model;
+
+import com.example.demo.store.util.Money;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Map field tiền kiểu long (minor units) <-> cột DECIMAL(19,2) -> schema lưu chính xác, không dùng DOUBLE
+ */
+@Converter
+public class MoneyConverter implements AttributeConverter<Long, BigDecimal> {
+
+    @Override
+    public BigDecimal convertToDatabaseColumn(Long minor) {
+        return minor != null ? Money.toDecimal(minor) : null;
+    }
+
+    @Override
+    public Long convertToEntityAttribute(BigDecimal amount) {
+        // Làm tròn để vẫn đọc được dữ liệu cũ từ cột DOUBLE (trước khi ALTER sang DECIMAL)
+        return amount != null ? Money.fromDecimal(amount.setScale(Money.SCALE, RoundingMode.HALF_UP)) : null;
+    }
+}
@@ -1,11 +1,22 @@
 package com.example.demo.store.model;
 
+import com.example.demo.store.dto.PaymentType;
+import com.example.demo.store.util.MoneyJson;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders",
+       indexes = {
+           @Index(name = "idx_orders_user_id_id", columnList = "user_id, id"), // phục vụ lịch sử order theo user
+           @Index(name = "idx_orders_status_id", columnList = "status, id")    // phục vụ job reconciliation (keyset theo status)
+       })
 @Getter
 @Setter
 @NoArgsConstructor
@@ -17,8 +28,29 @@ public class Order {
     private Long id;
 
     private String externalId;
-    private double total;
-    private String status; // CREATED, PAID, FAILED
+
+    @Convert(converter = MoneyConverter.class)
+    @Column(precision = 19, scale = 2)
+    @JsonSerialize(using = MoneyJson.Serializer.class)
+    @JsonDeserialize(using = MoneyJson.Deserializer.class)
+    private long total; // minor units (xem util.Money)
+
+    // CREATED, PAID, FAILED
+    // + do job reconciliation: RETRYING (đang thanh toán lại), FAILED_FINAL (hết lượt thử), NEEDS_REVIEW (cần người kiểm tra)
+    private String status;
+
+    // Lưu lại phương thức thanh toán để job reconciliation có thể thanh toán lại
+    @Enumerated(EnumType.STRING)
+    private PaymentType paymentType;
+
+    @CreationTimestamp
+    private LocalDateTime createdAt;
+
+    // Số lần đã gọi nhà cung cấp thanh toán (null = order cũ, coi như 0)
+    // Được ghi xuống DB TRƯỚC khi gọi provider -> biết order có thể đã bị trừ tiền hay chưa
+    private Integer paymentAttempts;
+
+    private LocalDateTime lastAttemptAt; // thời điểm gọi provider gần nhất
 
     // Nhiều Order thuộc về 1 User
     @ManyToOne
@@ -1,5 +1,9 @@
 package com.example.demo.store.model;
 
+import com.example.demo.store.util.MoneyJson;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import jakarta.persistence.*;
 import lombok.*;
 
@@ -16,9 +20,15 @@ public class OrderItem {
     private Long id;
 
     private int quantity;
-    private double price; // giá tại thời điểm order
+
+    @Convert(converter = MoneyConverter.class)
+    @Column(precision = 19, scale = 2)
+    @JsonSerialize(using = MoneyJson.Serializer.class)
+    @JsonDeserialize(using = MoneyJson.Deserializer.class)
+    private long price; // giá tại thời điểm order, minor units
 
     // Nhiều OrderItem thuộc về 1 Order
+    @JsonIgnore // tránh vòng lặp Order -> items -> order khi serialize
     @ManyToOne
     @JoinColumn(name = "order_id")
     private Order order;
@@ -0,0 +1,38 @@
+package com.example.demo.store.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+
+/**
+ * Bảng tạm cho cập nhật giá hàng loạt (BulkPriceUpdateService)
+ * - Mỗi lần chạy có 1 runId; các dòng hợp lệ được ghi vào đây trước,
+ *   rồi áp dụng vào products trong 1 transaction duy nhất -> all-or-nothing
+ * - Chỉ dùng qua JdbcTemplate; entity này để ddl-auto tạo bảng + index
+ */
+@Entity
+@Table(name = "price_update_staging",
+       indexes = @Index(name = "idx_price_update_staging_run_product", columnList = "run_id, product_id"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PriceUpdateStaging {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "run_id", nullable = false, length = 36)
+    private String runId;
+
+    @Column(name = "row_no")
+    private int rowNo; // số dòng trong input (để báo lỗi)
+
+    @Column(name = "product_id")
+    private Long productId;
+
+    @Column(precision = 19, scale = 2)
+    private BigDecimal price; // cùng kiểu cột với products.price -> UPDATE ... JOIN chép thẳng
+}
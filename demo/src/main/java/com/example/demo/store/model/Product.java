@@ -1,5 +1,8 @@
 package com.example.demo.store.model;
 
+import com.example.demo.store.util.MoneyJson;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import jakarta.persistence.*;
 import lombok.*;
 import java.util.List;
@@ -17,7 +20,12 @@ public class Product {
     private Long id;
 
     private String name;
-    private double price;
+
+    @Convert(converter = MoneyConverter.class)
+    @Column(precision = 19, scale = 2)
+    @JsonSerialize(using = MoneyJson.Serializer.class)
+    @JsonDeserialize(using = MoneyJson.Deserializer.class)
+    private long price; // minor units (xem util.Money)
 
     // 1 Product có thể nằm trong nhiều OrderItem
     @OneToMany(mappedBy = "product", cascade = CascadeType.ALL, orphanRemoval = true)
@@ -0,0 +1,25 @@
+package com.example.demo.store.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Lưu vị trí (id order cuối cùng đã xử lý) của job reconciliation
+ * -> restart ứng dụng thì job chạy tiếp từ checkpoint thay vì quét lại từ đầu
+ */
+@Entity
+@Table(name = "reconciliation_checkpoints")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReconciliationCheckpoint {
+    @Id
+    private String name;
+
+    private Long lastId; // id order lớn nhất đã reconcile xong
+    private LocalDateTime updatedAt;
+}
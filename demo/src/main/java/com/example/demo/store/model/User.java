@@ -1,5 +1,6 @@
 package com.example.demo.store.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.*;
 import java.util.List;
@@ -20,6 +21,8 @@ public class User {
     private String email;
 
     // 1 User có nhiều Order
+    // Không serialize ra JSON (danh sách không giới hạn) -> dùng GET /api/users/{id}/orders để phân trang
+    @JsonIgnore
     @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Order> orders;
 }
@@ -0,0 +1,66 @@
+package com.example.demo.store.pricing;
+
+import com.example.demo.store.model.OrderItem;
+
+import java.util.List;
+
+/**
+ * Tính tiền dòng hàng và tổng đơn trên long minor units (xem util.Money)
+ * - Chỉ dùng phép tính số nguyên -> chính xác, không boxing, không cấp phát object tạm
+ * - Discount và thuế tính theo basis points (1 bps = 0.01%), làm tròn half-up tới minor unit
+ * - Tràn số -> ArithmeticException (Math.*Exact) thay vì ra số tiền sai
+ */
+public final class PricingEngine {
+    public static final int BPS = 10_000; // 100%
+
+    private PricingEngine() { }
+
+    // Thành tiền 1 dòng: đơn giá * số lượng - discount
+    public static long lineTotal(long unitPrice, int quantity, int discountBps) {
+        if (quantity < 0) {
+            throw new IllegalArgumentException("Quantity must be >= 0: " + quantity);
+        }
+        long gross = Math.multiplyExact(unitPrice, quantity);
+        return gross - percentOf(gross, discountBps);
+    }
+
+    // Tiền thuế trên tạm tính
+    public static long tax(long subtotal, int taxBps) {
+        return percentOf(subtotal, taxBps);
+    }
+
+    // Tổng đơn = tạm tính + thuế
+    public static long orderTotal(long subtotal, int taxBps) {
+        return Math.addExact(subtotal, tax(subtotal, taxBps));
+    }
+
+    // Tạm tính của các OrderItem đã gắn giá (duyệt theo index -> không tạo Iterator)
+    public static long subtotal(List<OrderItem> items) {
+        long subtotal = 0;
+        for (int i = 0, n = items.size(); i < n; i++) {
+            OrderItem it = items.get(i);
+            subtotal = Math.addExact(subtotal, lineTotal(it.getPrice(), it.getQuantity(), 0));
+        }
+        return subtotal;
+    }
+
+    // Tổng đơn từ các mảng primitive (dùng cho cart lớn / benchmark)
+    public static long price(long[] unitPrices, int[] quantities, int[] discountBps, int lines, int taxBps) {
+        long subtotal = 0;
+        for (int i = 0; i < lines; i++) {
+            subtotal = Math.addExact(subtotal, lineTotal(unitPrices[i], quantities[i], discountBps[i]));
+        }
+        return orderTotal(subtotal, taxBps);
+    }
+
+    // amount * bps / 10000, làm tròn half-up (amount >= 0)
+    private static long percentOf(long amount, int bps) {
+        if (bps == 0) {
+            return 0;
+        }
+        if (bps < 0 || bps > BPS) {
+            throw new IllegalArgumentException("Basis points must be in [0, " + BPS + "]: " + bps);
+        }
+        return Math.addExact(Math.multiplyExact(amount, bps), BPS / 2) / BPS;
+    }
+}
@@ -1,8 +1,18 @@
 package com.example.demo.store.repository;
 
+import com.example.demo.store.dto.OrderSummary;
+import com.example.demo.store.dto.OrderView;
+import com.example.demo.store.dto.ReconcileCandidate;
 import com.example.demo.store.model.Order;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface OrderRepository extends JpaRepository<Order, Long> {
@@ -10,6 +20,55 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     // Lấy tất cả order của 1 user
     List<Order> findByUserId(Long userId);
 
+    // View phẳng của tất cả order (không load entity graph)
+    @Query("select new com.example.demo.store.dto.OrderView(o.id, o.externalId, o.total, o.status, u.id) "
+            + "from Order o left join o.user u order by o.id")
+    List<OrderView> findAllViews();
+
+    // Các dòng hàng cho view phẳng: [orderId, productId, quantity, price]
+    @Query("select i.order.id, p.id, i.quantity, i.price from OrderItem i left join i.product p "
+            + "where i.order is not null order by i.order.id, i.id")
+    List<Object[]> findAllViewLines();
+
+    // Trang đầu lịch sử order của user (mới nhất trước) - dùng index (user_id, id)
+    @Query("select new com.example.demo.store.dto.OrderSummary(o.id, o.externalId, o.total, o.status, o.createdAt) "
+            + "from Order o where o.user.id = :userId order by o.id desc")
+    List<OrderSummary> findSummariesByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    // Trang tiếp theo: các order có id < cursor (keyset pagination, không dùng OFFSET)
+    @Query("select new com.example.demo.store.dto.OrderSummary(o.id, o.externalId, o.total, o.status, o.createdAt) "
+            + "from Order o where o.user.id = :userId and o.id < :cursor order by o.id desc")
+    List<OrderSummary> findSummariesByUserIdBefore(@Param("userId") Long userId,
+                                                   @Param("cursor") Long cursor,
+                                                   Pageable pageable);
+
     // Lấy order theo trạng thái (CREATED, PAID, FAILED)
     List<Order> findByStatus(String status);
+
+    // Job reconciliation: quét keyset các order có trạng thái cho trước, id > afterId (dùng index (status, id))
+    // Chỉ lấy các cột cần dùng, không load user/items
+    @Query("select new com.example.demo.store.dto.ReconcileCandidate(o.id, o.total, o.paymentType, o.status, "
+            + "o.createdAt, u.id, o.paymentAttempts, o.lastAttemptAt) "
+            + "from Order o left join o.user u where o.status in :statuses and o.id > :afterId order by o.id")
+    List<ReconcileCandidate> findReconcileCandidates(@Param("statuses") Collection<String> statuses,
+                                                     @Param("afterId") Long afterId,
+                                                     Pageable pageable);
+
+    // Ghi dấu "đang thanh toán lại" TRƯỚC khi gọi provider: FAILED -> RETRYING, tăng số lần thử
+    // Trả về 0 nếu order không còn FAILED (đã có luồng khác nhận) -> không được thanh toán
+    @Modifying
+    @Transactional
+    @Query("update Order o set o.status = 'RETRYING', "
+            + "o.paymentAttempts = coalesce(o.paymentAttempts, 0) + 1, o.lastAttemptAt = :now "
+            + "where o.id = :id and o.status = 'FAILED'")
+    int markRetrying(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    // Cập nhật trạng thái hàng loạt bằng 1 câu UPDATE
+    // Chỉ đổi các order vẫn còn ở trạng thái expected (tránh ghi đè thay đổi đồng thời)
+    @Modifying
+    @Transactional
+    @Query("update Order o set o.status = :status where o.id in :ids and o.status in :expected")
+    int updateStatus(@Param("ids") Collection<Long> ids,
+                     @Param("status") String status,
+                     @Param("expected") Collection<String> expected);
 }
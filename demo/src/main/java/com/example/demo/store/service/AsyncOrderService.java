@@ -0,0 +1,88 @@
+package com.example.demo.store.service;
+
+import com.example.demo.store.dto.OrderRequest;
+import com.example.demo.store.model.Order;
+import com.example.demo.store.model.OrderItem;
+import com.example.demo.store.model.User;
+import com.example.demo.store.repository.OrderRepository;
+import com.example.demo.store.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Đặt hàng bất đồng bộ (non-blocking) cho POST /api/orders/async
+ * - Cùng input OrderRequest, cùng các bước như OrderService.createOrder
+ *   nhưng mỗi bước chạy trên pool riêng: DB -> dbExecutor, thanh toán -> paymentExecutor.
+ * - Thread của servlet container được trả lại ngay, không bị giữ suốt quá trình checkout.
+ * - Backpressure: tối đa store.async.max-in-flight đơn đang xử lý;
+ *   vượt quá -> 503 ngay lập tức thay vì xếp hàng vô hạn.
+ */
+@Service
+public class AsyncOrderService {
+
+    private final UserRepository userRepository;
+    private final OrderRepository orderRepository;
+    private final OrderService orderService;
+    private final Executor dbExecutor;
+    private final Executor paymentExecutor;
+    private final Semaphore inFlight; // số đơn đang nằm trong pipeline
+
+    public AsyncOrderService(UserRepository userRepository,
+                             OrderRepository orderRepository,
+                             OrderService orderService,
+                             @Qualifier("dbExecutor") Executor dbExecutor,
+                             @Qualifier("paymentExecutor") Executor paymentExecutor,
+                             @Value("${store.async.max-in-flight:200}") int maxInFlight) {
+        this.userRepository = userRepository;
+        this.orderRepository = orderRepository;
+        this.orderService = orderService;
+        this.dbExecutor = dbExecutor;
+        this.paymentExecutor = paymentExecutor;
+        this.inFlight = new Semaphore(maxInFlight);
+    }
+
+    public CompletableFuture<Order> submit(OrderRequest request) {
+        // Hết chỗ -> từ chối ngay để client retry sau (áp lực ngược về HTTP layer)
+        if (!inFlight.tryAcquire()) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many orders in flight");
+        }
+
+        CompletableFuture<Order> result;
+        try {
+            result = CompletableFuture
+                    // B1 + B2 + B3: lấy user, product (1 query) và build Order
+                    .supplyAsync(() -> prepare(request), dbExecutor)
+                    // B4: lưu lần 1 (CREATED)
+                    .thenApplyAsync(orderRepository::save, dbExecutor)
+                    // B5: thanh toán
+                    .thenApplyAsync(order -> orderService.applyPayment(order, request.getPaymentType()), paymentExecutor)
+                    // B6: lưu trạng thái cuối
+                    .thenApplyAsync(orderRepository::save, dbExecutor)
+                    // B7: cập nhật cache order gần đây của user
+                    .thenApply(orderService::rememberRecent);
+        } catch (TaskRejectedException e) {
+            inFlight.release();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Order executor saturated", e);
+        }
+        return result.whenComplete((order, error) -> inFlight.release());
+    }
+
+    // Chạy trên dbExecutor: lấy user + toàn bộ product trong 1 lần findAllById
+    private Order prepare(OrderRequest request) {
+        User user = userRepository.findById(request.getUserId())
+                .orElseThrow(() -> new RuntimeException("User not found: " + request.getUserId()));
+
+        List<OrderRequest.Item> requested = request.getItems() != null ? request.getItems() : List.of();
+        List<OrderItem> items = orderService.loadLines(requested);
+        return orderService.buildOrder(user, items, request.getPaymentType());
+    }
+}
@@ -0,0 +1,214 @@
+package com.example.demo.store.service;
+
+import com.example.demo.store.dto.BulkPriceUpdateResult;
+import com.example.demo.store.util.Money;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Cập nhật giá hàng loạt (POST /api/products/prices)
+ * - Đọc input dạng stream (mảng JSON hoặc CSV "productId,price") qua PriceRowReader, không load cả file vào bộ nhớ
+ * - Các dòng hợp lệ được ghi vào bảng tạm price_update_staging theo chunk (batch INSERT)
+ * - Đọc xong: báo lỗi product không tồn tại, bỏ dòng trùng (dòng sau thắng),
+ *   ghim giá cũ vào ProductPriceCache, rồi UPDATE products JOIN staging trong 1 transaction duy nhất
+ * - Bỏ ghim cả batch sau khi transaction kết thúc -> giá mới có hiệu lực cùng lúc;
+ *   input hỏng hoặc lỗi DB -> không giá nào thay đổi
+ * - Chỉ 1 batch chạy tại 1 thời điểm (batch khác -> 409 Conflict)
+ */
+@Service
+public class BulkPriceUpdateService {
+
+    private static final String INSERT_STAGING_SQL =
+            "insert into price_update_staging (run_id, row_no, product_id, price) values (?, ?, ?, ?)";
+    private static final String MISSING_PRODUCTS_SQL =
+            "select s.row_no, s.product_id from price_update_staging s "
+            + "left join products p on p.id = s.product_id where s.run_id = ? and p.id is null order by s.row_no";
+    private static final String DELETE_MISSING_SQL =
+            "delete s from price_update_staging s "
+            + "left join products p on p.id = s.product_id where s.run_id = ? and p.id is null";
+    // Cùng product xuất hiện nhiều lần -> giữ dòng cuối cùng (id lớn nhất)
+    private static final String DELETE_DUPLICATES_SQL =
+            "delete s1 from price_update_staging s1 join price_update_staging s2 "
+            + "on s2.run_id = s1.run_id and s2.product_id = s1.product_id and s2.id > s1.id where s1.run_id = ?";
+    private static final String PRICES_SQL =
+            "select s.product_id, p.price from price_update_staging s "
+            + "join products p on p.id = s.product_id where s.run_id = ?";
+    private static final String ID_RANGE_SQL =
+            "select min(id), max(id) from price_update_staging where run_id = ?";
+    private static final String APPLY_SQL =
+            "update products p join price_update_staging s on s.product_id = p.id "
+            + "set p.price = s.price where s.run_id = ? and s.id between ? and ?";
+    private static final String DELETE_RUN_SQL =
+            "delete from price_update_staging where run_id = ? limit ?";
+
+    private final ProductPriceCache productPriceCache;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final int chunkSize;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    public BulkPriceUpdateService(ProductPriceCache productPriceCache,
+                                  JdbcTemplate jdbcTemplate,
+                                  TransactionTemplate transactionTemplate,
+                                  ObjectMapper objectMapper,
+                                  @Value("${store.pricing.bulk.chunk-size:1000}") int chunkSize) {
+        this.productPriceCache = productPriceCache;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.chunkSize = chunkSize;
+    }
+
+    // Input: [{"productId": 1, "price": 19.99}, ...]
+    public BulkPriceUpdateResult updateFromJson(InputStream in) throws IOException {
+        return run(batch -> {
+            try (JsonParser parser = objectMapper.createParser(in)) {
+                PriceRowReader.readJson(parser, batch);
+            }
+        });
+    }
+
+    // Input: mỗi dòng "productId,price"; cho phép 1 dòng header đầu tiên
+    public BulkPriceUpdateResult updateFromCsv(InputStream in) throws IOException {
+        return run(batch -> PriceRowReader.readCsv(in, batch));
+    }
+
+    private interface RowSource {
+        void feed(Batch batch) throws IOException;
+    }
+
+    private BulkPriceUpdateResult run(RowSource source) throws IOException {
+        if (!lock.tryLock()) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Another bulk price update is running");
+        }
+        Batch batch = new Batch(UUID.randomUUID().toString());
+        try {
+            source.feed(batch);
+            batch.flush();
+            if (!batch.aborted) {
+                batch.apply();
+            }
+        } finally {
+            try {
+                deleteRun(batch.runId);
+            } finally {
+                lock.unlock();
+            }
+        }
+        return batch.result;
+    }
+
+    // Xóa các dòng tạm của 1 lần chạy, theo từng chunk
+    private void deleteRun(String runId) {
+        while (jdbcTemplate.update(DELETE_RUN_SQL, runId, chunkSize) > 0) {
+            // tiếp tục tới khi hết
+        }
+    }
+
+    // Gom các dòng hợp lệ thành chunk, ghi vào bảng tạm; apply() ghi tất cả vào products cùng lúc
+    private class Batch implements PriceRowReader.Sink {
+        final String runId;
+        final BulkPriceUpdateResult result = new BulkPriceUpdateResult();
+        final List<Object[]> pending = new ArrayList<>(); // [runId, row, productId, price] chờ INSERT
+        int staged;
+        boolean aborted;
+
+        Batch(String runId) {
+            this.runId = runId;
+        }
+
+        @Override
+        public void accept(int row, long productId, long priceMinor) {
+            result.setReceived(result.getReceived() + 1);
+            pending.add(new Object[]{runId, row, productId, Money.toDecimal(priceMinor)});
+            if (pending.size() >= chunkSize) {
+                flush();
+            }
+        }
+
+        @Override
+        public void fail(int row, Long productId, String reason) {
+            result.setReceived(result.getReceived() + 1);
+            result.addFailure(row, productId, reason);
+        }
+
+        // Input hỏng, không đọc tiếp được -> không áp dụng dòng nào
+        @Override
+        public void abort(int row, String reason) {
+            aborted = true;
+            result.addFailure(row, null, reason);
+        }
+
+        // 1 batch INSERT cho cả chunk vào bảng tạm
+        void flush() {
+            if (pending.isEmpty()) {
+                return;
+            }
+            jdbcTemplate.batchUpdate(INSERT_STAGING_SQL, pending);
+            staged += pending.size();
+            pending.clear();
+        }
+
+        void apply() {
+            // B1: dòng trỏ tới product không tồn tại -> báo lỗi và bỏ khỏi bảng tạm
+            jdbcTemplate.query(MISSING_PRODUCTS_SQL,
+                    rs -> {
+                        result.addFailure(rs.getInt(1), rs.getLong(2), "Product not found");
+                    },
+                    runId);
+            int missing = jdbcTemplate.update(DELETE_MISSING_SQL, runId);
+            int accepted = staged - missing;
+            if (accepted == 0) {
+                result.setApplied(true); // không có gì để ghi
+                return;
+            }
+            // Dòng trùng product đã bị dòng sau thay thế -> không tính vào updated
+            int duplicates = jdbcTemplate.update(DELETE_DUPLICATES_SQL, runId);
+            result.setDuplicates(duplicates);
+
+            // B2: ghim giá cũ (order đang chạy vẫn dùng giá cũ tới khi batch kết thúc)
+            Map<Long, Long> current = new HashMap<>();
+            jdbcTemplate.query(PRICES_SQL, rs -> {
+                // Làm tròn như MoneyConverter (dữ liệu cũ từ cột DOUBLE)
+                current.put(rs.getLong(1), Money.fromDecimal(rs.getBigDecimal(2).setScale(Money.SCALE, RoundingMode.HALF_UP)));
+            }, runId);
+            productPriceCache.pin(current);
+
+            try {
+                // B3: 1 transaction, UPDATE ... JOIN theo từng khoảng id của bảng tạm (mỗi câu tối đa chunkSize dòng)
+                transactionTemplate.executeWithoutResult(status -> {
+                    long[] range = jdbcTemplate.queryForObject(ID_RANGE_SQL,
+                            (rs, i) -> new long[]{rs.getLong(1), rs.getLong(2)}, runId);
+                    long minId = range[0];
+                    long maxId = range[1];
+                    for (long from = minId; from <= maxId; from += chunkSize) {
+                        jdbcTemplate.update(APPLY_SQL, runId, from, Math.min(from + chunkSize - 1, maxId));
+                    }
+                });
+            } finally {
+                // B4: đã commit -> bỏ ghim cả batch cùng lúc, order sau đọc giá mới từ DB
+                // (rollback -> DB vẫn giữ giá cũ, bỏ ghim cũng không đổi giá)
+                productPriceCache.unpin(current.keySet());
+            }
+            result.setUpdated(accepted - duplicates);
+            result.setApplied(true);
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package com.example.demo.store.service;
+
+import com.example.demo.store.dto.ReconcileCandidate;
+import com.example.demo.store.model.ReconciliationCheckpoint;
+import com.example.demo.store.payment.PaymentFactory;
+import com.example.demo.store.repository.OrderRepository;
+import com.example.demo.store.repository.ReconciliationCheckpointRepository;
+import com.example.demo.store.util.Money;
+import com.example.demo.store.util.RateLimiter;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Job nền xử lý các order bị "kẹt":
+ * - CREATED quá hạn: crash giữa 2 lần save trong OrderService.createOrder. Provider CÓ THỂ đã trừ tiền
+ *   (dấu paymentAttempts được lưu trước khi gọi provider) -> không thanh toán lại, chuyển NEEDS_REVIEW
+ * - RETRYING quá hạn: crash trong lúc job đang thanh toán lại -> cũng chuyển NEEDS_REVIEW
+ * - FAILED: lỗi tạm thời từ nhà cung cấp thanh toán -> thử lại với backoff lũy thừa
+ *   (backoff-seconds * 2^(số lần thử - 1)), tối đa max-attempts lần rồi chuyển FAILED_FINAL
+ *
+ * Cách chạy:
+ * - Quét keyset (status, id > checkpoint) bằng projection ReconcileCandidate, không load entity.
+ * - Mỗi "wave" đọc liên tiếp tối đa `parallelism` chunk rồi xử lý song song trên ForkJoinPool riêng.
+ * - Trước khi gọi provider: UPDATE có điều kiện FAILED -> RETRYING (+1 lần thử); 0 dòng -> bỏ qua.
+ *   -> mỗi lần thử được ghi lại trước, 2 luồng/2 instance không thể cùng thanh toán 1 order.
+ * - Kết quả được ghi bằng UPDATE hàng loạt, chỉ áp dụng cho order vẫn đang RETRYING.
+ * - Xong 1 wave -> lưu checkpoint; restart thì chạy tiếp từ checkpoint.
+ * - RateLimiter + parallelism nhỏ -> không chiếm hết connection/provider của checkout thật.
+ */
+@Component
+@ConditionalOnProperty(name = "store.reconcile.enabled", havingValue = "true", matchIfMissing = true)
+public class OrderReconciliationJob {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderReconciliationJob.class);
+
+    private static final String CHECKPOINT_NAME = "order-reconciliation";
+    private static final List<String> STATUSES = List.of("CREATED", "RETRYING", "FAILED");
+
+    private final OrderRepository orderRepository;
+    private final ReconciliationCheckpointRepository checkpointRepository;
+    private final RecentOrdersCache recentOrdersCache;
+    private final int chunkSize;
+    private final int parallelism;
+    private final long createdGraceSeconds;
+    private final int maxAttempts;
+    private final long backoffSeconds;
+    private final RateLimiter rateLimiter;
+    private final ForkJoinPool pool;
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    public OrderReconciliationJob(OrderRepository orderRepository,
+                                  ReconciliationCheckpointRepository checkpointRepository,
+                                  RecentOrdersCache recentOrdersCache,
+                                  @Value("${store.reconcile.chunk-size:500}") int chunkSize,
+                                  @Value("${store.reconcile.parallelism:2}") int parallelism,
+                                  @Value("${store.reconcile.max-orders-per-second:50}") double maxOrdersPerSecond,
+                                  @Value("${store.reconcile.created-grace-seconds:300}") long createdGraceSeconds,
+                                  @Value("${store.reconcile.max-attempts:5}") int maxAttempts,
+                                  @Value("${store.reconcile.backoff-seconds:60}") long backoffSeconds) {
+        this.orderRepository = orderRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.recentOrdersCache = recentOrdersCache;
+        this.chunkSize = chunkSize;
+        this.parallelism = parallelism;
+        this.createdGraceSeconds = createdGraceSeconds;
+        this.maxAttempts = maxAttempts;
+        this.backoffSeconds = backoffSeconds;
+        this.rateLimiter = new RateLimiter(maxOrdersPerSecond);
+        this.pool = new ForkJoinPool(parallelism);
+    }
+
+    @Scheduled(fixedDelayString = "${store.reconcile.interval-ms:60000}",
+               initialDelayString = "${store.reconcile.initial-delay-ms:30000}")
+    public void run() {
+        // Không cho 2 lần chạy chồng lên nhau
+        if (!running.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            reconcile();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException | ExecutionException e) {
+            // Checkpoint vẫn giữ ở wave cuối cùng thành công -> lần chạy sau làm lại từ đó
+            log.warn("Order reconciliation stopped: {}", e.toString());
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private void reconcile() throws InterruptedException, ExecutionException {
+        ReconciliationCheckpoint checkpoint = checkpointRepository.findById(CHECKPOINT_NAME)
+                .orElseGet(() -> ReconciliationCheckpoint.builder().name(CHECKPOINT_NAME).lastId(0L).build());
+
+        long afterId = checkpoint.getLastId();
+        LocalDateTime staleBefore = LocalDateTime.now().minusSeconds(createdGraceSeconds);
+
+        while (true) {
+            // Đọc tuần tự các chunk của wave (keyset: chunk sau bắt đầu sau id cuối của chunk trước)
+            List<Callable<Void>> chunks = new ArrayList<>();
+            boolean lastPage = false;
+            for (int i = 0; i < parallelism && !lastPage; i++) {
+                List<ReconcileCandidate> chunk =
+                        orderRepository.findReconcileCandidates(STATUSES, afterId, PageRequest.of(0, chunkSize));
+                if (chunk.isEmpty()) {
+                    break;
+                }
+                afterId = chunk.get(chunk.size() - 1).getId();
+                lastPage = chunk.size() < chunkSize;
+                chunks.add(() -> {
+                    reconcileChunk(chunk, staleBefore);
+                    return null;
+                });
+            }
+            if (chunks.isEmpty()) {
+                break;
+            }
+
+            // Chờ cả wave xong; 1 chunk lỗi -> dừng, không tiến checkpoint
+            for (Future<Void> f : pool.invokeAll(chunks)) {
+                f.get();
+            }
+
+            saveCheckpoint(checkpoint, afterId);
+            if (lastPage) {
+                break;
+            }
+        }
+
+        // Quét xong 1 lượt -> lượt sau bắt đầu lại từ đầu (order FAILED tới hạn backoff sẽ được thử lại)
+        saveCheckpoint(checkpoint, 0L);
+    }
+
+    private void reconcileChunk(List<ReconcileCandidate> chunk, LocalDateTime staleBefore) throws InterruptedException {
+        List<Long> stuck = new ArrayList<>();     // CREATED/RETRYING quá hạn -> NEEDS_REVIEW
+        List<Long> unknown = new ArrayList<>();   // FAILED nhưng không có paymentType -> NEEDS_REVIEW
+        List<Long> exhausted = new ArrayList<>(); // FAILED đã hết lượt thử -> FAILED_FINAL
+        List<Long> paid = new ArrayList<>();
+        List<Long> failed = new ArrayList<>();
+        List<Long> failedFinal = new ArrayList<>();
+        Set<Long> userIds = new HashSet<>(); // user có order đổi trạng thái -> bỏ khỏi cache lịch sử
+        LocalDateTime now = LocalDateTime.now();
+
+        for (ReconcileCandidate order : chunk) {
+            if (!"FAILED".equals(order.getStatus())) {
+                // CREATED/RETRYING còn mới -> checkout/lần thử lại có thể vẫn đang chạy, bỏ qua
+                LocalDateTime touchedAt = order.getLastAttemptAt() != null ? order.getLastAttemptAt() : order.getCreatedAt();
+                if (touchedAt == null || touchedAt.isBefore(staleBefore)) {
+                    stuck.add(order.getId());
+                    addUser(userIds, order);
+                }
+                continue;
+            }
+            // Order cũ chưa lưu paymentType -> không biết gọi provider nào
+            if (order.getPaymentType() == null) {
+                unknown.add(order.getId());
+                addUser(userIds, order);
+                continue;
+            }
+            if (order.getPaymentAttempts() >= maxAttempts) {
+                exhausted.add(order.getId());
+                addUser(userIds, order);
+                continue;
+            }
+            if (!isDue(order, now)) {
+                continue;
+            }
+
+            rateLimiter.acquire();
+            // Ghi dấu lần thử trước khi gọi provider; order đã bị luồng khác nhận -> bỏ qua
+            if (orderRepository.markRetrying(order.getId(), LocalDateTime.now()) == 0) {
+                continue;
+            }
+            addUser(userIds, order);
+            // Các provider hiện tại không có API tra cứu trạng thái -> thanh toán lại qua Factory
+            boolean ok;
+            try {
+                ok = PaymentFactory.create(order.getPaymentType()).pay(Money.toDouble(order.getTotal()));
+            } catch (RuntimeException e) {
+                // Không rõ provider đã trừ tiền hay chưa -> để RETRYING, lượt sau chuyển NEEDS_REVIEW
+                log.warn("Payment retry for order {} failed: {}", order.getId(), e.toString());
+                continue;
+            }
+            if (ok) {
+                paid.add(order.getId());
+            } else if (order.getPaymentAttempts() + 1 >= maxAttempts) {
+                failedFinal.add(order.getId());
+            } else {
+                failed.add(order.getId());
+            }
+        }
+
+        updateStatus(stuck, "NEEDS_REVIEW", List.of("CREATED", "RETRYING"));
+        updateStatus(unknown, "NEEDS_REVIEW", List.of("FAILED"));
+        updateStatus(exhausted, "FAILED_FINAL", List.of("FAILED"));
+        updateStatus(paid, "PAID", List.of("RETRYING"));
+        updateStatus(failed, "FAILED", List.of("RETRYING"));
+        updateStatus(failedFinal, "FAILED_FINAL", List.of("RETRYING"));
+        for (Long userId : userIds) {
+            recentOrdersCache.evict(userId);
+        }
+    }
+
+    // Tới hạn thử lại: lần thử gần nhất + backoffSeconds * 2^(số lần thử - 1)
+    private boolean isDue(ReconcileCandidate order, LocalDateTime now) {
+        if (order.getLastAttemptAt() == null || order.getPaymentAttempts() == 0) {
+            return true;
+        }
+        int shift = Math.min(order.getPaymentAttempts() - 1, 20);
+        return !order.getLastAttemptAt().plusSeconds(backoffSeconds << shift).isAfter(now);
+    }
+
+    private void updateStatus(List<Long> ids, String status, List<String> expected) {
+        if (!ids.isEmpty()) {
+            orderRepository.updateStatus(ids, status, expected);
+        }
+    }
+
+    private static void addUser(Set<Long> userIds, ReconcileCandidate order) {
+        if (order.getUserId() != null) {
+            userIds.add(order.getUserId());
+        }
+    }
+
+    private void saveCheckpoint(ReconciliationCheckpoint checkpoint, long lastId) {
+        checkpoint.setLastId(lastId);
+        checkpoint.setUpdatedAt(LocalDateTime.now());
+        checkpointRepository.save(checkpoint);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+}
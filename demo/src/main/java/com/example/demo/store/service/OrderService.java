@@ -1,6 +1,10 @@
 package com.example.demo.store.service;
 
 import com.example.demo.store.builder.OrderBuilder;
+import com.example.demo.store.dto.OrderPage;
+import com.example.demo.store.dto.OrderRequest;
+import com.example.demo.store.dto.OrderSummary;
+import com.example.demo.store.dto.OrderView;
 import com.example.demo.store.dto.PaymentType;
 import com.example.demo.store.model.Order;
 import com.example.demo.store.model.OrderItem;
@@ -8,57 +12,122 @@ import com.example.demo.store.model.Product;
 import com.example.demo.store.model.User;
 import com.example.demo.store.payment.PaymentFactory;
 import com.example.demo.store.payment.PaymentService;
+import com.example.demo.store.pricing.PricingEngine;
 import com.example.demo.store.repository.OrderRepository;
 import com.example.demo.store.repository.ProductRepository;
+import com.example.demo.store.util.Money;
 import com.example.demo.store.util.UniqueIdGenerator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service // Đánh dấu class này là một Spring Service (chứa business logic)
 public class OrderService {
 
     private final ProductRepository productRepository;
     private final OrderRepository orderRepository;
+    private final RecentOrdersCache recentOrdersCache;
+    private final ProductPriceCache productPriceCache;
+    private final int taxBps; // thuế theo basis points (1000 = 10%)
 
     // Constructor injection: Spring sẽ tự động inject repository vào
     public OrderService(ProductRepository productRepository,
-                        OrderRepository orderRepository) {
+                        OrderRepository orderRepository,
+                        RecentOrdersCache recentOrdersCache,
+                        ProductPriceCache productPriceCache,
+                        @Value("${store.pricing.tax-bps:0}") int taxBps) {
         this.productRepository = productRepository;
         this.orderRepository = orderRepository;
+        this.recentOrdersCache = recentOrdersCache;
+        this.productPriceCache = productPriceCache;
+        this.taxBps = taxBps;
     }
 
-    // Tạo order mới
-    public Order createOrder(User user, List<OrderItem> items, PaymentType paymentType) {
-        double total = 0; // tổng tiền đơn hàng
-        List<OrderItem> processedItems = new ArrayList<>(); // danh sách item đã xử lý
-
-        // ✅ B1: Xử lý từng OrderItem từ client gửi lên
-        for (OrderItem it : items) {
-            // Lấy product từ DB để đảm bảo thông tin chính xác
-            Product product = productRepository.findById(it.getProduct().getId())
-                    .orElseThrow(() -> new RuntimeException("Product not found: " + it.getProduct().getId()));
-
-            // Dùng Builder Pattern để tạo bản copy của OrderItem
-            OrderItem copy = OrderItem.builder()
-                    .product(product)              // gắn sản phẩm thực từ DB
-                    .quantity(it.getQuantity())    // gắn số lượng
-                    .price(product.getPrice())     // giá sản phẩm tại thời điểm order
-                    .build();
-
-            processedItems.add(copy); // thêm vào danh sách
-            total += product.getPrice() * it.getQuantity(); // cộng vào tổng tiền
+    // Tạo order mới từ các dòng client gửi lên (productId + quantity)
+    public Order createOrder(User user, List<OrderRequest.Item> requested, PaymentType paymentType) {
+        // ✅ B1: Lấy product từ DB (1 query cho cả đơn) và gắn giá cho từng dòng
+        List<OrderItem> processedItems = loadLines(requested);
+
+        // ✅ B2 + B3: Tính tổng tiền, sinh externalId và build Order
+        Order order = buildOrder(user, processedItems, paymentType);
+
+        // ✅ B4: Lưu Order lần 1 vào DB (trạng thái CREATED)
+        order = orderRepository.save(order);
+
+        // ✅ B5: Xử lý thanh toán
+        applyPayment(order, paymentType);
+
+        // ✅ B6: Save lại order vào DB với trạng thái final
+        order = orderRepository.save(order);
+
+        // ✅ B7: Cập nhật cache order gần đây của user
+        return rememberRecent(order);
+    }
+
+    // Lấy toàn bộ product của đơn trong 1 lần findAllById, giữ thứ tự dòng của request, rồi gắn giá
+    // Dùng chung cho createOrder và luồng bất đồng bộ (AsyncOrderService)
+    public List<OrderItem> loadLines(List<OrderRequest.Item> requested) {
+        List<Long> productIds = new ArrayList<>(requested.size());
+        for (OrderRequest.Item i : requested) {
+            productIds.add(i.getProductId());
+        }
+        Map<Long, Product> products = new HashMap<>();
+        for (Product p : productRepository.findAllById(productIds)) {
+            products.put(p.getId(), p);
+        }
+
+        List<Product> ordered = new ArrayList<>(requested.size());
+        int[] quantities = new int[requested.size()];
+        for (int i = 0; i < requested.size(); i++) {
+            OrderRequest.Item item = requested.get(i);
+            Product product = products.get(item.getProductId());
+            if (product == null) {
+                throw new RuntimeException("Product not found: " + item.getProductId());
+            }
+            ordered.add(product);
+            quantities[i] = item.getQuantity();
         }
+        return priceLines(ordered, quantities);
+    }
+
+    // Tạo các dòng order từ product đã đọc từ DB + số lượng
+    // 1 bảng giá cho cả order (không bị lẫn giá của đợt cập nhật giá hàng loạt đang chạy)
+    public List<OrderItem> priceLines(List<Product> products, int[] quantities) {
+        ProductPriceCache.Snapshot prices = productPriceCache.snapshot();
+        List<OrderItem> lines = new ArrayList<>(products.size());
+        for (int i = 0, n = products.size(); i < n; i++) {
+            Product product = products.get(i);
+            // Setter trực tiếp, không cấp phát builder cho mỗi dòng
+            OrderItem line = new OrderItem();
+            line.setProduct(product);                 // gắn sản phẩm thực từ DB
+            line.setQuantity(quantities[i]);          // gắn số lượng
+            line.setPrice(prices.priceOf(product));   // giá sản phẩm tại thời điểm order (minor units)
+            lines.add(line);
+        }
+        return lines;
+    }
 
-        // ✅ B2: Sinh externalId duy nhất cho order
+    // Build Order (chưa lưu DB) từ các item đã được gắn product + giá thực
+    // Dùng chung cho createOrder và luồng bất đồng bộ (AsyncOrderService)
+    public Order buildOrder(User user, List<OrderItem> processedItems, PaymentType paymentType) {
+        // Tổng tiền đơn hàng (minor units): tạm tính các dòng + thuế, tính bằng số nguyên
+        long total = PricingEngine.orderTotal(PricingEngine.subtotal(processedItems), taxBps);
+
+        // Sinh externalId duy nhất cho order
         // Ứng dụng Singleton Pattern qua UniqueIdGenerator
         String externalId = UniqueIdGenerator.getInstance().generate();
 
-        // ✅ B3: Dùng Builder Pattern để build Order
+        // Dùng Builder Pattern để build Order
         OrderBuilder builder = new OrderBuilder()
                 .withExternalId(externalId)
                 .withUser(user)   // gắn user trực tiếp
+                .withPaymentType(paymentType)
                 .withTotal(total);
 
         // Thêm các item vào order
@@ -70,20 +139,81 @@ public class OrderService {
         Order order = builder.build();
         order.setUser(user);          // gắn user
         order.setStatus("CREATED");   // trạng thái ban đầu
+        // Dấu lần thanh toán thứ 1: được lưu cùng lần save CREATED, trước khi gọi provider
+        // -> order CREATED bị kẹt có thể đã bị trừ tiền, job reconciliation không được thanh toán lại
+        order.setPaymentAttempts(1);
+        order.setLastAttemptAt(LocalDateTime.now());
+        return order;
+    }
 
-        // ✅ B4: Lưu Order lần 1 vào DB (trạng thái CREATED)
-        order = orderRepository.save(order);
-
-        // ✅ B5: Xử lý thanh toán
+    // Thanh toán cho order và cập nhật trạng thái (chưa lưu DB)
+    public Order applyPayment(Order order, PaymentType paymentType) {
         // Dùng Factory Pattern để lấy service thanh toán phù hợp
         PaymentService paymentService = PaymentFactory.create(paymentType);
-        boolean paid = paymentService.pay(total);
+        boolean paid = paymentService.pay(Money.toDouble(order.getTotal())); // cổng thanh toán vẫn nhận double
 
         // Cập nhật trạng thái order theo kết quả thanh toán
         order.setStatus(paid ? "PAID" : "FAILED");
+        return order;
+    }
 
-        // ✅ B6: Save lại order vào DB với trạng thái final
-        return orderRepository.save(order);
+    // Ghi order vừa lưu vào cache lịch sử của user (nếu user đang có trong cache)
+    public Order rememberRecent(Order order) {
+        if (order.getUser() != null) {
+            recentOrdersCache.onOrderSaved(order.getUser().getId(), new OrderSummary(
+                    order.getId(), order.getExternalId(), order.getTotal(), order.getStatus(), order.getCreatedAt()));
+        }
+        return order;
+    }
+
+    // Lịch sử order của user, mới nhất trước, phân trang theo cursor (id order cuối của trang trước)
+    public OrderPage getOrderHistory(Long userId, Long cursor, int limit) {
+        // Trang đầu -> thử phục vụ từ cache trước
+        if (cursor == null && limit <= recentOrdersCache.getPerUser()) {
+            RecentOrdersCache.Recent recent = recentOrdersCache.get(userId);
+            if (recent == null) {
+                int perUser = recentOrdersCache.getPerUser();
+                long stamp = recentOrdersCache.stamp(userId);
+                // Lấy dư 1 dòng -> biết user còn order cũ hơn trang đầu hay không
+                List<OrderSummary> rows = orderRepository.findSummariesByUserId(userId, PageRequest.of(0, perUser + 1));
+                recentOrdersCache.put(userId, rows, stamp);
+                recent = new RecentOrdersCache.Recent(rows.size() > perUser ? rows.subList(0, perUser) : rows,
+                        rows.size() > perUser);
+            }
+            List<OrderSummary> orders = recent.getOrders();
+            List<OrderSummary> page = orders.size() > limit ? orders.subList(0, limit) : orders;
+            boolean hasMore = orders.size() > limit || recent.hasOlder();
+            return toPage(page, hasMore);
+        }
+
+        // Các trang sau: lấy dư 1 dòng để biết còn trang tiếp theo hay không
+        PageRequest pageRequest = PageRequest.of(0, limit + 1);
+        List<OrderSummary> rows = cursor == null
+                ? orderRepository.findSummariesByUserId(userId, pageRequest)
+                : orderRepository.findSummariesByUserIdBefore(userId, cursor, pageRequest);
+        boolean hasMore = rows.size() > limit;
+        return toPage(hasMore ? rows.subList(0, limit) : rows, hasMore);
+    }
+
+    private OrderPage toPage(List<OrderSummary> items, boolean hasMore) {
+        Long nextCursor = hasMore && !items.isEmpty() ? items.get(items.size() - 1).getId() : null;
+        return new OrderPage(new ArrayList<>(items), nextCursor);
+    }
+
+    // View phẳng của tất cả order: 2 query projection, không lazy load items/product theo từng order
+    public List<OrderView> getAllOrderViews() {
+        List<OrderView> views = orderRepository.findAllViews();
+        Map<Long, OrderView> byId = new HashMap<>(views.size() * 2);
+        for (OrderView view : views) {
+            byId.put(view.getId(), view);
+        }
+        for (Object[] r : orderRepository.findAllViewLines()) {
+            OrderView view = byId.get((Long) r[0]);
+            if (view != null) {
+                view.getItems().add(new OrderView.Line((Long) r[1], (Integer) r[2], (Long) r[3]));
+            }
+        }
+        return views;
     }
 
     // Lấy tất cả order trong DB
@@ -0,0 +1,151 @@
+package com.example.demo.store.service;
+
+import com.example.demo.store.util.Money;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Đọc input cập nhật giá hàng loạt dạng stream, từng dòng một (không load cả file vào bộ nhớ)
+ * - JSON: [{"productId": 1, "price": 19.99}, ...]; CSV: mỗi dòng "productId,price", cho phép 1 dòng header
+ * - Dòng hợp lệ -> Sink.accept (giá đã đổi sang minor units); dòng sai -> Sink.fail rồi đọc tiếp
+ * - Input hỏng, không đọc tiếp được -> Sink.abort rồi dừng
+ * - Row bắt đầu từ 1 (phần tử của mảng JSON / dòng của file CSV)
+ */
+public final class PriceRowReader {
+
+    public interface Sink {
+        void accept(int row, long productId, long priceMinor);
+
+        void fail(int row, Long productId, String reason);
+
+        void abort(int row, String reason);
+    }
+
+    private PriceRowReader() {}
+
+    // Parser phải có ObjectCodec (tạo từ ObjectMapper) để đọc từng object
+    public static void readJson(JsonParser parser, Sink sink) throws IOException {
+        int row = 0;
+        try {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                sink.abort(0, "Expected a JSON array");
+                return;
+            }
+            while (true) {
+                row++; // phần tử đang đọc -> lỗi cú pháp bên trong phần tử báo đúng dòng
+                JsonToken token = parser.nextToken();
+                if (token == JsonToken.END_ARRAY) {
+                    return;
+                }
+                if (token == null) {
+                    sink.abort(row, "Unexpected end of JSON array");
+                    return;
+                }
+                if (token != JsonToken.START_OBJECT) {
+                    sink.fail(row, null, "Expected a JSON object");
+                    parser.skipChildren(); // phần tử là mảng -> bỏ qua cả mảng con
+                    continue;
+                }
+                JsonNode node = parser.readValueAsTree();
+                Long productId;
+                BigDecimal price;
+                try {
+                    productId = longValue(node.get("productId"));
+                    price = decimalValue(node.get("price"));
+                } catch (NumberFormatException e) {
+                    sink.fail(row, null, "Invalid number: " + e.getMessage());
+                    continue;
+                }
+                validate(row, productId, price, sink);
+            }
+        } catch (JsonProcessingException e) {
+            // Sai cú pháp JSON -> không đọc tiếp được, hủy cả batch
+            sink.abort(row, "Malformed JSON: " + e.getOriginalMessage());
+        }
+    }
+
+    public static void readCsv(InputStream in, Sink sink) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        String line;
+        int row = 0;
+        while ((line = reader.readLine()) != null) {
+            row++;
+            line = line.trim();
+            if (line.isEmpty() || (row == 1 && !Character.isDigit(line.charAt(0)))) {
+                continue; // dòng trống hoặc header
+            }
+            String[] cols = line.split(",");
+            if (cols.length != 2) {
+                sink.fail(row, null, "Expected 2 columns: productId,price");
+                continue;
+            }
+            Long productId;
+            BigDecimal price;
+            try {
+                productId = Long.valueOf(cols[0].trim());
+                price = new BigDecimal(cols[1].trim());
+            } catch (NumberFormatException e) {
+                sink.fail(row, null, "Invalid number: " + e.getMessage());
+                continue;
+            }
+            validate(row, productId, price, sink);
+        }
+    }
+
+    // Kiểm tra 1 dòng đã đọc được số: đủ trường, giá không âm, tối đa Money.SCALE chữ số thập phân
+    private static void validate(int row, Long productId, BigDecimal price, Sink sink) {
+        if (productId == null || price == null) {
+            sink.fail(row, productId, "productId and price are required");
+            return;
+        }
+        if (price.signum() < 0) {
+            sink.fail(row, productId, "Invalid price: " + price);
+            return;
+        }
+        long minor;
+        try {
+            minor = Money.fromDecimal(price);
+        } catch (ArithmeticException e) {
+            sink.fail(row, productId, "Price must have at most " + Money.SCALE + " decimal places: " + price);
+            return;
+        }
+        sink.accept(row, productId, minor);
+    }
+
+    // productId: số nguyên hoặc chuỗi số; thiếu/null -> null
+    private static Long longValue(JsonNode node) {
+        if (node == null || node.isNull()) {
+            return null;
+        }
+        if (node.isIntegralNumber() && node.canConvertToLong()) {
+            return node.longValue();
+        }
+        if (node.isTextual()) {
+            return Long.valueOf(node.textValue().trim());
+        }
+        throw new NumberFormatException("productId " + node);
+    }
+
+    // price: số hoặc chuỗi số; thiếu/null -> null
+    private static BigDecimal decimalValue(JsonNode node) {
+        if (node == null || node.isNull()) {
+            return null;
+        }
+        if (node.isNumber()) {
+            return node.decimalValue();
+        }
+        if (node.isTextual()) {
+            return new BigDecimal(node.textValue().trim());
+        }
+        throw new NumberFormatException("price " + node);
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.demo.store.service;
+
+import com.example.demo.store.model.Product;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Giá "ghim" của product trong lúc cập nhật giá hàng loạt (BulkPriceUpdateService)
+ * - Bình thường bảng rỗng: order dùng giá của product vừa đọc từ DB
+ * - Đọc qua snapshot(): 1 order dùng đúng 1 bảng ghim cho mọi dòng; luồng order chỉ đọc, không bao giờ ghi vào cache
+ * - Cập nhật giá hàng loạt:
+ *   + pin(...) giá cũ trước khi UPDATE -> order không thấy giá mới trước khi batch kết thúc
+ *   + unpin(...) sau khi transaction commit (hoặc thất bại) -> bỏ ghim cả batch bằng 1 phép gán volatile,
+ *     mọi giá mới có hiệu lực cùng lúc; sau đó DB lại là nguồn giá duy nhất
+ * - pin/unpin/evict dùng chung 1 lock (copy-on-write) -> không mất lần evict khi đang đổi bảng
+ */
+@Component
+public class ProductPriceCache {
+
+    private volatile Map<Long, Long> pinned = new HashMap<>(); // không sửa tại chỗ, chỉ gán bảng mới
+
+    // Ảnh chụp bảng ghim hiện tại
+    public Snapshot snapshot() {
+        return new Snapshot(pinned);
+    }
+
+    public static class Snapshot {
+        private final Map<Long, Long> pinned;
+
+        private Snapshot(Map<Long, Long> pinned) {
+            this.pinned = pinned;
+        }
+
+        // Giá (minor units): giá đang ghim nếu có, ngược lại giá của product vừa đọc từ DB
+        // Chỉ get -> không cấp phát, không đưa giá đọc từ DB vào cache
+        public long priceOf(Product product) {
+            Long price = pinned.get(product.getId());
+            return price != null ? price : product.getPrice();
+        }
+    }
+
+    // Ghim giá hiện tại (đọc từ DB trước khi UPDATE) của các product sắp đổi giá
+    public synchronized void pin(Map<Long, Long> currentPrices) {
+        Map<Long, Long> next = new HashMap<>(pinned);
+        currentPrices.forEach(next::putIfAbsent);
+        pinned = next;
+    }
+
+    // Bỏ ghim các product của 1 batch cùng lúc
+    public synchronized void unpin(Collection<Long> productIds) {
+        Map<Long, Long> next = new HashMap<>(pinned);
+        next.keySet().removeAll(productIds);
+        pinned = next;
+    }
+
+    // Bỏ ghim 1 product (sau khi sửa/xóa từng product qua ProductController)
+    public synchronized void evict(Long productId) {
+        if (pinned.containsKey(productId)) {
+            Map<Long, Long> next = new HashMap<>(pinned);
+            next.remove(productId);
+            pinned = next;
+        }
+    }
+}
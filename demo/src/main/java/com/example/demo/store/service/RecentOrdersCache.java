@@ -0,0 +1,119 @@
+package com.example.demo.store.service;
+
+import com.example.demo.store.dto.OrderSummary;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cache có giới hạn: userId -> các order mới nhất (tối đa perUser order)
+ * - LRU theo user: quá maxUsers thì bỏ user ít truy cập nhất
+ * - Mỗi entry luôn chứa đúng min(tổng số order, perUser) order mới nhất của user, sắp theo id giảm dần,
+ *   kèm cờ hasOlder (user còn order cũ hơn ngoài cache hay không)
+ *   -> trang đầu của GET /api/users/{id}/orders phục vụ thẳng từ cache, không cần query MySQL
+ * - Entry chỉ được tạo khi load trang đầu từ DB; ghi mới chỉ cập nhật entry đã có
+ * - Order được chèn đúng vị trí theo id: các lần save đồng thời có thể xong không theo thứ tự id
+ * - stamps: đếm số lần ghi theo nhóm user -> không nạp kết quả DB đã cũ
+ *   (order được lưu trong lúc đang query trang đầu)
+ */
+@Component
+public class RecentOrdersCache {
+
+    private static final int STRIPES = 1024;
+
+    private final int perUser;
+    private final long[] stamps = new long[STRIPES];
+    private final Map<Long, Recent> entries;
+
+    // Các order mới nhất của 1 user (mới nhất trước) + user còn order cũ hơn hay không
+    public static class Recent {
+        private final List<OrderSummary> orders;
+        private boolean hasOlder;
+
+        public Recent(List<OrderSummary> orders, boolean hasOlder) {
+            this.orders = orders; this.hasOlder = hasOlder;
+        }
+
+        public List<OrderSummary> getOrders() { return orders; }
+        public boolean hasOlder() { return hasOlder; }
+    }
+
+    public RecentOrdersCache(@Value("${store.history.cache.max-users:10000}") int maxUsers,
+                             @Value("${store.history.cache.per-user:20}") int perUser) {
+        this.perUser = perUser;
+        // accessOrder = true -> LinkedHashMap hoạt động như LRU
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Recent> eldest) {
+                return size() > maxUsers;
+            }
+        };
+    }
+
+    public int getPerUser() {
+        return perUser;
+    }
+
+    // Trả về bản copy các order mới nhất (mới nhất trước), null nếu user chưa có trong cache
+    public synchronized Recent get(Long userId) {
+        Recent recent = entries.get(userId);
+        return recent != null ? new Recent(new ArrayList<>(recent.orders), recent.hasOlder) : null;
+    }
+
+    // Lấy stamp trước khi query DB, truyền lại vào put(...)
+    public synchronized long stamp(Long userId) {
+        return stamps[stripe(userId)];
+    }
+
+    // Nạp trang đầu vừa đọc từ DB: tối đa perUser + 1 order, mới nhất trước
+    // (dòng thừa chỉ để biết user còn order cũ hơn hay không)
+    // Bỏ qua nếu có order của nhóm user này được ghi kể từ lúc lấy stamp
+    public synchronized void put(Long userId, List<OrderSummary> newestFirst, long stamp) {
+        if (stamps[stripe(userId)] != stamp) {
+            return;
+        }
+        List<OrderSummary> orders = new ArrayList<>(newestFirst.subList(0, Math.min(newestFirst.size(), perUser)));
+        entries.put(userId, new Recent(orders, newestFirst.size() > perUser));
+    }
+
+    // Gọi sau khi OrderService lưu order: thêm mới hoặc cập nhật trạng thái order đã có
+    public synchronized void onOrderSaved(Long userId, OrderSummary summary) {
+        stamps[stripe(userId)]++;
+        Recent recent = entries.get(userId);
+        if (recent == null) {
+            return; // user chưa có trong cache -> lần đọc sau sẽ load từ DB
+        }
+        List<OrderSummary> orders = recent.orders;
+        // Tìm vị trí theo id giảm dần; order đã có trong cache -> thay tại chỗ
+        int pos = 0;
+        while (pos < orders.size() && orders.get(pos).getId() > summary.getId()) {
+            pos++;
+        }
+        if (pos < orders.size() && orders.get(pos).getId().equals(summary.getId())) {
+            orders.set(pos, summary);
+            return;
+        }
+        if (pos == orders.size() && recent.hasOlder) {
+            return; // cũ hơn mọi order trong cache và ngoài cache vẫn còn order -> không thuộc trang đầu
+        }
+        orders.add(pos, summary);
+        if (orders.size() > perUser) {
+            orders.remove(orders.size() - 1);
+            recent.hasOlder = true;
+        }
+    }
+
+    // Bỏ entry của user (ví dụ sau khi job reconciliation cập nhật trạng thái hàng loạt)
+    public synchronized void evict(Long userId) {
+        stamps[stripe(userId)]++;
+        entries.remove(userId);
+    }
+
+    private static int stripe(Long userId) {
+        return Math.floorMod(userId.hashCode(), STRIPES);
+    }
+}
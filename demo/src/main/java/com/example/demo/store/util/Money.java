@@ -0,0 +1,30 @@
+package com.example.demo.store.util;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Tiền tệ biểu diễn bằng long theo đơn vị nhỏ nhất (minor units), ví dụ 25.99 -> 2599
+ * - Không dùng double cho tiền: cộng/nhân double bị sai số làm tròn
+ * - BigDecimal chỉ dùng ở biên (DB, JSON, cổng thanh toán), không dùng trong vòng lặp tính giá
+ */
+public final class Money {
+    public static final int SCALE = 2; // số chữ số thập phân của đơn vị tiền tệ
+
+    private Money() { }
+
+    // 25.99 -> 2599; lỗi nếu có nhiều hơn SCALE chữ số thập phân
+    public static long fromDecimal(BigDecimal amount) {
+        return amount.setScale(SCALE, RoundingMode.UNNECESSARY).unscaledValue().longValueExact();
+    }
+
+    // 2599 -> 25.99 (DECIMAL chính xác)
+    public static BigDecimal toDecimal(long minor) {
+        return BigDecimal.valueOf(minor, SCALE);
+    }
+
+    // Chỉ dùng ở biên với API cũ còn nhận double (PaymentService)
+    public static double toDouble(long minor) {
+        return toDecimal(minor).doubleValue();
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.demo.store.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+
+import java.io.IOException;
+
+/**
+ * Giữ nguyên định dạng số thập phân trên API (25.99) cho các field tiền kiểu long minor units
+ * Dùng: @JsonSerialize(using = MoneyJson.Serializer.class) @JsonDeserialize(using = MoneyJson.Deserializer.class)
+ */
+public final class MoneyJson {
+
+    private MoneyJson() { }
+
+    public static class Serializer extends JsonSerializer<Long> {
+        @Override
+        public void serialize(Long minor, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeNumber(Money.toDecimal(minor));
+        }
+    }
+
+    public static class Deserializer extends JsonDeserializer<Long> {
+        @Override
+        public Long deserialize(JsonParser p, DeserializationContext ctx) throws IOException {
+            try {
+                return Money.fromDecimal(p.getDecimalValue());
+            } catch (ArithmeticException e) {
+                return (Long) ctx.handleWeirdNumberValue(Long.class, p.getNumberValue(),
+                        "amount must have at most " + Money.SCALE + " decimal places");
+            }
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.demo.store.util;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Giới hạn số thao tác mỗi giây (chia đều theo thời gian)
+ * - Dùng chung giữa nhiều thread: mỗi lần acquire() "đặt chỗ" 1 khe thời gian rồi ngủ tới khe đó
+ */
+public class RateLimiter {
+    private final long intervalNanos; // khoảng cách giữa 2 permit
+    private long next;                // thời điểm permit kế tiếp được cấp
+
+    public RateLimiter(double permitsPerSecond) {
+        if (permitsPerSecond <= 0) {
+            throw new IllegalArgumentException("permitsPerSecond must be > 0: " + permitsPerSecond);
+        }
+        this.intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond);
+        this.next = System.nanoTime();
+    }
+
+    public void acquire() throws InterruptedException {
+        long wait;
+        synchronized (this) {
+            long now = System.nanoTime();
+            if (next < now) {
+                next = now; // không tích lũy permit khi rảnh
+            }
+            wait = next - now;
+            next += intervalNanos;
+        }
+        if (wait > 0) {
+            TimeUnit.NANOSECONDS.sleep(wait);
+        }
+    }
+}
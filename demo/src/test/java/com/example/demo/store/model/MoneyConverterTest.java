@@ -0,0 +1,42 @@
+package com.example.demo.store.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class MoneyConverterTest {
+
+    private final MoneyConverter converter = new MoneyConverter();
+
+    @Test
+    void writesDecimalColumn() {
+        assertEquals(new BigDecimal("25.99"), converter.convertToDatabaseColumn(2599L));
+        assertEquals(new BigDecimal("0.00"), converter.convertToDatabaseColumn(0L));
+        assertNull(converter.convertToDatabaseColumn(null));
+    }
+
+    @Test
+    void readsDecimalColumn() {
+        assertEquals(2599L, converter.convertToEntityAttribute(new BigDecimal("25.99")));
+        assertEquals(2500L, converter.convertToEntityAttribute(new BigDecimal("25")));
+        assertNull(converter.convertToEntityAttribute(null));
+    }
+
+    @Test
+    void roundsLegacyDoubleValuesHalfUp() {
+        // Cột DOUBLE cũ: 0.1 + 0.2 được lưu thành 0.30000000000000004
+        assertEquals(30L, converter.convertToEntityAttribute(new BigDecimal(0.1 + 0.2)));
+        assertEquals(2599L, converter.convertToEntityAttribute(new BigDecimal("25.985")));
+        assertEquals(2598L, converter.convertToEntityAttribute(new BigDecimal("25.9849")));
+    }
+
+    @Test
+    void roundTrip() {
+        for (long minor : new long[]{0, 1, 99, 2599, 123456789}) {
+            assertEquals(minor, converter.convertToEntityAttribute(converter.convertToDatabaseColumn(minor)));
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.demo.store.pricing;
+
+import com.example.demo.store.model.OrderItem;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PricingEngineTest {
+
+    @Test
+    void lineTotalMultipliesUnitPriceByQuantity() {
+        assertEquals(7797, PricingEngine.lineTotal(2599, 3, 0));
+        assertEquals(0, PricingEngine.lineTotal(2599, 0, 0));
+    }
+
+    @Test
+    void lineTotalSubtractsDiscountRoundedHalfUp() {
+        assertEquals(900, PricingEngine.lineTotal(1000, 1, 1000));   // -10%
+        assertEquals(0, PricingEngine.lineTotal(1000, 1, PricingEngine.BPS)); // -100%
+        // 5 * 150 bps = 0.075 -> giảm 0 (làm tròn xuống), 50 * 150 bps = 0.75 -> giảm 1 (half-up)
+        assertEquals(5, PricingEngine.lineTotal(5, 1, 150));
+        assertEquals(49, PricingEngine.lineTotal(50, 1, 150));
+        // 1 * 5000 bps = 0.5 -> giảm 1 (half-up)
+        assertEquals(0, PricingEngine.lineTotal(1, 1, 5000));
+    }
+
+    @Test
+    void lineTotalRejectsNegativeQuantityAndOutOfRangeBps() {
+        assertThrows(IllegalArgumentException.class, () -> PricingEngine.lineTotal(100, -1, 0));
+        assertThrows(IllegalArgumentException.class, () -> PricingEngine.lineTotal(100, 1, -1));
+        assertThrows(IllegalArgumentException.class, () -> PricingEngine.lineTotal(100, 1, PricingEngine.BPS + 1));
+    }
+
+    @Test
+    void lineTotalOverflowThrows() {
+        assertThrows(ArithmeticException.class, () -> PricingEngine.lineTotal(Long.MAX_VALUE / 2, 3, 0));
+    }
+
+    @Test
+    void taxRoundsHalfUp() {
+        assertEquals(0, PricingEngine.tax(1000, 0));
+        assertEquals(100, PricingEngine.tax(1000, 1000));    // 10%
+        assertEquals(1, PricingEngine.tax(5, 1000));         // 0.5 -> 1
+        assertEquals(0, PricingEngine.tax(4, 1000));         // 0.4 -> 0
+        assertEquals(826, PricingEngine.tax(10325, 800));    // 826.0
+    }
+
+    @Test
+    void orderTotalAddsTax() {
+        assertEquals(11000, PricingEngine.orderTotal(10000, 1000));
+        assertEquals(10000, PricingEngine.orderTotal(10000, 0));
+        assertThrows(ArithmeticException.class, () -> PricingEngine.orderTotal(Long.MAX_VALUE, 1));
+    }
+
+    @Test
+    void subtotalSumsOrderItems() {
+        List<OrderItem> items = new ArrayList<>();
+        items.add(item(2599, 2));
+        items.add(item(199, 3));
+        assertEquals(2599 * 2 + 199 * 3, PricingEngine.subtotal(items));
+        assertEquals(0, PricingEngine.subtotal(List.of()));
+    }
+
+    @Test
+    void priceMatchesLineByLineCalculation() {
+        long[] unitPrices = {1999, 250, 10};
+        int[] quantities = {1, 4, 7};
+        int[] discountBps = {0, 2500, 1000};
+        long expectedSubtotal = 1999 + 750 + 63; // 250*4 - 25%, 70 - 10% = 63
+        assertEquals(PricingEngine.orderTotal(expectedSubtotal, 1000),
+                PricingEngine.price(unitPrices, quantities, discountBps, 3, 1000));
+        // Chỉ tính `lines` dòng đầu
+        assertEquals(1999, PricingEngine.price(unitPrices, quantities, discountBps, 1, 0));
+    }
+
+    @Test
+    void integerMathAvoidsDoubleDrift() {
+        // 0.10 * 3 bằng double = 0.30000000000000004
+        assertEquals(30, PricingEngine.lineTotal(10, 3, 0));
+    }
+
+    private static OrderItem item(long price, int quantity) {
+        OrderItem item = new OrderItem();
+        item.setPrice(price);
+        item.setQuantity(quantity);
+        return item;
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.demo.store.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PriceRowReaderTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    // Ghi lại mọi lời gọi dưới dạng chuỗi để so sánh
+    static class Recorder implements PriceRowReader.Sink {
+        final List<String> accepted = new ArrayList<>();
+        final List<String> failed = new ArrayList<>();
+        final List<String> aborted = new ArrayList<>();
+
+        @Override
+        public void accept(int row, long productId, long priceMinor) {
+            accepted.add(row + ":" + productId + "=" + priceMinor);
+        }
+
+        @Override
+        public void fail(int row, Long productId, String reason) {
+            failed.add(row + ":" + productId + " " + reason);
+        }
+
+        @Override
+        public void abort(int row, String reason) {
+            aborted.add(row + " " + reason);
+        }
+    }
+
+    @Test
+    void jsonConvertsPricesToMinorUnits() throws IOException {
+        Recorder sink = json("[{\"productId\": 1, \"price\": 19.99}, {\"productId\": \"2\", \"price\": \"5\"}]");
+        assertEquals(List.of("1:1=1999", "2:2=500"), sink.accepted);
+        assertTrue(sink.failed.isEmpty());
+        assertTrue(sink.aborted.isEmpty());
+    }
+
+    @Test
+    void jsonNonObjectElementFailsOnlyThatRow() throws IOException {
+        Recorder sink = json("[1, [2, {\"productId\": 9, \"price\": 1}], {\"productId\": 4, \"price\": 1.5}]");
+        assertEquals(List.of("1:null Expected a JSON object", "2:null Expected a JSON object"), sink.failed);
+        // Mảng con bị bỏ qua cả mảng -> object bên trong không bị đọc nhầm
+        assertEquals(List.of("3:4=150"), sink.accepted);
+    }
+
+    @Test
+    void jsonBadNumberFailsRow() throws IOException {
+        Recorder sink = json("[{\"productId\": \"abc\", \"price\": 1}, {\"productId\": 2, \"price\": true},"
+                + " {\"productId\": 3, \"price\": \"1,5\"}, {\"productId\": 4, \"price\": 2}]");
+        assertEquals(3, sink.failed.size());
+        for (String f : sink.failed) {
+            assertTrue(f.contains("Invalid number"), f);
+        }
+        assertEquals(List.of("4:4=200"), sink.accepted);
+    }
+
+    @Test
+    void jsonRejectsMoreThanTwoDecimals() throws IOException {
+        Recorder sink = json("[{\"productId\": 1, \"price\": 1.999}, {\"productId\": 2, \"price\": 1.990}]");
+        assertEquals(List.of("1:1 Price must have at most 2 decimal places: 1.999"), sink.failed);
+        assertEquals(List.of("2:2=199"), sink.accepted); // số 0 thừa ở cuối vẫn hợp lệ
+    }
+
+    @Test
+    void jsonRejectsMissingFieldAndNegativePrice() throws IOException {
+        Recorder sink = json("[{\"productId\": 1}, {\"price\": 2}, {\"productId\": 3, \"price\": -1}]");
+        assertEquals(List.of("1:1 productId and price are required",
+                "2:null productId and price are required",
+                "3:3 Invalid price: -1"), sink.failed);
+        assertTrue(sink.accepted.isEmpty());
+    }
+
+    @Test
+    void jsonAbortsWhenNotArrayOrMalformed() throws IOException {
+        assertEquals(List.of("0 Expected a JSON array"), json("{\"productId\": 1}").aborted);
+
+        Recorder sink = json("[{\"productId\": 1, \"price\": 2}, {\"productId\": ");
+        assertEquals(List.of("1:1=200"), sink.accepted);
+        assertEquals(1, sink.aborted.size());
+        assertTrue(sink.aborted.get(0).startsWith("2 Malformed JSON"), sink.aborted.get(0));
+
+        // Lỗi giữa 2 phần tử -> báo ở phần tử kế tiếp
+        sink = json("[{\"productId\": 1, \"price\": 2} x]");
+        assertEquals(1, sink.aborted.size());
+        assertTrue(sink.aborted.get(0).startsWith("2 Malformed JSON"), sink.aborted.get(0));
+    }
+
+    @Test
+    void csvSkipsHeaderAndBlankLines() throws IOException {
+        Recorder sink = csv("productId,price\n1,19.99\n\n 2 , 5 \n");
+        assertEquals(List.of("2:1=1999", "4:2=500"), sink.accepted);
+        assertTrue(sink.failed.isEmpty());
+    }
+
+    @Test
+    void csvHeaderOnlyAllowedOnFirstLine() throws IOException {
+        Recorder sink = csv("1,1\nproductId,price\n");
+        assertEquals(List.of("1:1=100"), sink.accepted);
+        assertEquals(1, sink.failed.size());
+        assertTrue(sink.failed.get(0).startsWith("2:null Invalid number"), sink.failed.get(0));
+    }
+
+    @Test
+    void csvRowFailuresDoNotStopReading() throws IOException {
+        Recorder sink = csv("1,abc\n2\n3,1.999\n4,-2\n5,3.10\n");
+        assertEquals(4, sink.failed.size());
+        assertTrue(sink.failed.get(0).startsWith("1:null Invalid number"), sink.failed.get(0));
+        assertEquals("2:null Expected 2 columns: productId,price", sink.failed.get(1));
+        assertEquals("3:3 Price must have at most 2 decimal places: 1.999", sink.failed.get(2));
+        assertEquals("4:4 Invalid price: -2", sink.failed.get(3));
+        assertEquals(List.of("5:5=310"), sink.accepted);
+        assertTrue(sink.aborted.isEmpty());
+    }
+
+    private Recorder json(String body) throws IOException {
+        Recorder sink = new Recorder();
+        PriceRowReader.readJson(mapper.createParser(body), sink);
+        return sink;
+    }
+
+    private static Recorder csv(String body) throws IOException {
+        Recorder sink = new Recorder();
+        PriceRowReader.readCsv(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), sink);
+        return sink;
+    }
+}
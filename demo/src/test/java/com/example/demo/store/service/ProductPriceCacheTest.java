@@ -0,0 +1,63 @@
+package com.example.demo.store.service;
+
+import com.example.demo.store.model.Product;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ProductPriceCacheTest {
+
+    @Test
+    void usesDatabasePriceWhenNotPinned() {
+        ProductPriceCache cache = new ProductPriceCache();
+        assertEquals(2599, cache.snapshot().priceOf(product(1L, 2599)));
+    }
+
+    @Test
+    void orderPathNeverFillsCache() {
+        ProductPriceCache cache = new ProductPriceCache();
+        // Order đọc product trước khi updateProduct commit -> giá cũ
+        cache.snapshot().priceOf(product(1L, 1000));
+        cache.evict(1L);
+        // Order sau đọc giá mới từ DB, không bị giá cũ ghi đè
+        assertEquals(1200, cache.snapshot().priceOf(product(1L, 1200)));
+    }
+
+    @Test
+    void pinnedPriceOverridesDatabaseUntilUnpinned() {
+        ProductPriceCache cache = new ProductPriceCache();
+        cache.pin(Map.of(1L, 1000L, 2L, 2000L));
+
+        ProductPriceCache.Snapshot during = cache.snapshot();
+        assertEquals(1000, during.priceOf(product(1L, 1500))); // DB đã có giá mới nhưng batch chưa xong
+        assertEquals(3000, during.priceOf(product(3L, 3000))); // product không thuộc batch
+
+        cache.unpin(List.of(1L, 2L));
+
+        assertEquals(1500, cache.snapshot().priceOf(product(1L, 1500)));
+        assertEquals(2500, cache.snapshot().priceOf(product(2L, 2500)));
+        // Snapshot đã lấy trước đó vẫn giữ nguyên bảng giá của order đang chạy
+        assertEquals(1000, during.priceOf(product(1L, 1500)));
+    }
+
+    @Test
+    void evictDropsSinglePin() {
+        ProductPriceCache cache = new ProductPriceCache();
+        cache.pin(Map.of(1L, 1000L, 2L, 2000L));
+
+        cache.evict(1L);
+
+        assertEquals(1100, cache.snapshot().priceOf(product(1L, 1100)));
+        assertEquals(2000, cache.snapshot().priceOf(product(2L, 2100)));
+    }
+
+    private static Product product(Long id, long price) {
+        Product product = new Product();
+        product.setId(id);
+        product.setPrice(price);
+        return product;
+    }
+}
@@ -0,0 +1,179 @@
+package com.example.demo.store.service;
+
+import com.example.demo.store.dto.OrderSummary;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RecentOrdersCacheTest {
+
+    private static final Long USER = 1L;
+
+    @Test
+    void missReturnsNull() {
+        assertNull(new RecentOrdersCache(10, 3).get(USER));
+    }
+
+    @Test
+    void putKeepsPerUserAndFlagsOlderFromExtraRow() {
+        RecentOrdersCache cache = new RecentOrdersCache(10, 3);
+        cache.put(USER, summaries(9, 8, 7, 6), cache.stamp(USER));
+
+        RecentOrdersCache.Recent recent = cache.get(USER);
+        assertEquals(List.of(9L, 8L, 7L), ids(recent));
+        assertTrue(recent.hasOlder());
+    }
+
+    @Test
+    void exactlyPerUserOrdersHasNoOlder() {
+        RecentOrdersCache cache = new RecentOrdersCache(10, 3);
+        cache.put(USER, summaries(9, 8, 7), cache.stamp(USER));
+
+        RecentOrdersCache.Recent recent = cache.get(USER);
+        assertEquals(List.of(9L, 8L, 7L), ids(recent));
+        assertFalse(recent.hasOlder());
+    }
+
+    @Test
+    void savesFinishingOutOfIdOrderStaySorted() {
+        RecentOrdersCache cache = new RecentOrdersCache(10, 5);
+        cache.put(USER, summaries(5), cache.stamp(USER));
+
+        cache.onOrderSaved(USER, summary(8, "CREATED"));
+        cache.onOrderSaved(USER, summary(6, "CREATED")); // save của order 6 xong sau order 8
+        cache.onOrderSaved(USER, summary(7, "CREATED"));
+
+        assertEquals(List.of(8L, 7L, 6L, 5L), ids(cache.get(USER)));
+    }
+
+    @Test
+    void resavedOrderIsReplacedInPlace() {
+        RecentOrdersCache cache = new RecentOrdersCache(10, 5);
+        cache.put(USER, summaries(3, 2, 1), cache.stamp(USER));
+
+        cache.onOrderSaved(USER, summary(2, "PAID"));
+
+        List<OrderSummary> orders = cache.get(USER).getOrders();
+        assertEquals(List.of(3L, 2L, 1L), ids(cache.get(USER)));
+        assertEquals("PAID", orders.get(1).getStatus());
+    }
+
+    @Test
+    void newOrderPushesOldestOutOfFullEntry() {
+        RecentOrdersCache cache = new RecentOrdersCache(10, 3);
+        cache.put(USER, summaries(3, 2, 1), cache.stamp(USER));
+
+        cache.onOrderSaved(USER, summary(4, "CREATED"));
+
+        RecentOrdersCache.Recent recent = cache.get(USER);
+        assertEquals(List.of(4L, 3L, 2L), ids(recent));
+        assertTrue(recent.hasOlder());
+    }
+
+    @Test
+    void olderOrderThanFullEntryIsIgnored() {
+        RecentOrdersCache cache = new RecentOrdersCache(10, 3);
+        cache.put(USER, summaries(9, 8, 7, 1), cache.stamp(USER));
+
+        cache.onOrderSaved(USER, summary(5, "PAID")); // order cũ ngoài trang đầu
+
+        RecentOrdersCache.Recent recent = cache.get(USER);
+        assertEquals(List.of(9L, 8L, 7L), ids(recent));
+        assertTrue(recent.hasOlder());
+    }
+
+    @Test
+    void olderOrderIsAddedWhenEntryHoldsAllOrders() {
+        RecentOrdersCache cache = new RecentOrdersCache(10, 3);
+        cache.put(USER, summaries(9), cache.stamp(USER));
+
+        cache.onOrderSaved(USER, summary(5, "CREATED"));
+
+        RecentOrdersCache.Recent recent = cache.get(USER);
+        assertEquals(List.of(9L, 5L), ids(recent));
+        assertFalse(recent.hasOlder());
+    }
+
+    @Test
+    void saveOfUncachedUserDoesNotCreateEntry() {
+        RecentOrdersCache cache = new RecentOrdersCache(10, 3);
+        cache.onOrderSaved(USER, summary(1, "CREATED"));
+        assertNull(cache.get(USER));
+    }
+
+    @Test
+    void staleLoadIsDroppedWhenOrderSavedDuringQuery() {
+        RecentOrdersCache cache = new RecentOrdersCache(10, 3);
+        long stamp = cache.stamp(USER);               // bắt đầu query DB
+        cache.onOrderSaved(USER, summary(2, "CREATED")); // order mới được lưu trong lúc query
+        cache.put(USER, summaries(1), stamp);            // kết quả DB không có order 2
+
+        assertNull(cache.get(USER));
+
+        cache.put(USER, summaries(2, 1), cache.stamp(USER));
+        assertEquals(List.of(2L, 1L), ids(cache.get(USER)));
+    }
+
+    @Test
+    void evictDropsEntryAndInvalidatesPendingLoad() {
+        RecentOrdersCache cache = new RecentOrdersCache(10, 3);
+        cache.put(USER, summaries(1), cache.stamp(USER));
+        long stamp = cache.stamp(USER);
+
+        cache.evict(USER);
+        cache.put(USER, summaries(1), stamp);
+
+        assertNull(cache.get(USER));
+    }
+
+    @Test
+    void leastRecentlyUsedUserIsEvicted() {
+        RecentOrdersCache cache = new RecentOrdersCache(2, 3);
+        cache.put(1L, summaries(1), cache.stamp(1L));
+        cache.put(2L, summaries(2), cache.stamp(2L));
+        cache.get(1L); // user 1 vừa được đọc -> user 2 là ít dùng nhất
+
+        cache.put(3L, summaries(3), cache.stamp(3L));
+
+        assertNotNull(cache.get(1L));
+        assertNull(cache.get(2L));
+        assertNotNull(cache.get(3L));
+    }
+
+    @Test
+    void getReturnsCopy() {
+        RecentOrdersCache cache = new RecentOrdersCache(10, 3);
+        cache.put(USER, summaries(2, 1), cache.stamp(USER));
+
+        cache.get(USER).getOrders().clear();
+
+        assertEquals(List.of(2L, 1L), ids(cache.get(USER)));
+    }
+
+    private static OrderSummary summary(long id, String status) {
+        return new OrderSummary(id, "ext-" + id, 1000L, status, null);
+    }
+
+    private static List<OrderSummary> summaries(long... ids) {
+        List<OrderSummary> list = new ArrayList<>();
+        for (long id : ids) {
+            list.add(summary(id, "PAID"));
+        }
+        return list;
+    }
+
+    private static List<Long> ids(RecentOrdersCache.Recent recent) {
+        List<Long> ids = new ArrayList<>();
+        for (OrderSummary s : recent.getOrders()) {
+            ids.add(s.getId());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.demo.store.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MoneyJsonTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    static class Priced {
+        @JsonSerialize(using = MoneyJson.Serializer.class)
+        @JsonDeserialize(using = MoneyJson.Deserializer.class)
+        public long price;
+    }
+
+    @Test
+    void serializesMinorUnitsAsDecimal() throws Exception {
+        Priced p = new Priced();
+        p.price = 2599;
+        assertEquals("{\"price\":25.99}", mapper.writeValueAsString(p));
+        p.price = 2500;
+        assertEquals("{\"price\":25.00}", mapper.writeValueAsString(p));
+    }
+
+    @Test
+    void deserializesDecimalToMinorUnits() throws Exception {
+        assertEquals(2599, mapper.readValue("{\"price\":25.99}", Priced.class).price);
+        assertEquals(2500, mapper.readValue("{\"price\":25}", Priced.class).price);
+        assertEquals(10, mapper.readValue("{\"price\":0.1}", Priced.class).price);
+    }
+
+    @Test
+    void deserializesWithoutDoubleDrift() throws Exception {
+        // Bằng double: 0.29 * 100 = 28.999999999999996, 1.15 * 100 = 114.99999999999999
+        assertEquals(29, mapper.readValue("{\"price\":0.29}", Priced.class).price);
+        assertEquals(115, mapper.readValue("{\"price\":1.15}", Priced.class).price);
+    }
+
+    @Test
+    void rejectsMoreThanTwoDecimals() {
+        assertThrows(InvalidFormatException.class, () -> mapper.readValue("{\"price\":25.999}", Priced.class));
+    }
+
+    @Test
+    void roundTrip() throws Exception {
+        Priced p = new Priced();
+        p.price = 123456789;
+        assertEquals(p.price, mapper.readValue(mapper.writeValueAsString(p), Priced.class).price);
+    }
+}
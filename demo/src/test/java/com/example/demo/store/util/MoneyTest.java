@@ -0,0 +1,52 @@
+package com.example.demo.store.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MoneyTest {
+
+    @Test
+    void fromDecimalConvertsToMinorUnits() {
+        assertEquals(2599, Money.fromDecimal(new BigDecimal("25.99")));
+        assertEquals(2500, Money.fromDecimal(new BigDecimal("25")));
+        assertEquals(2590, Money.fromDecimal(new BigDecimal("25.9")));
+        assertEquals(2599, Money.fromDecimal(new BigDecimal("25.990")));
+        assertEquals(0, Money.fromDecimal(BigDecimal.ZERO));
+        assertEquals(-150, Money.fromDecimal(new BigDecimal("-1.50")));
+    }
+
+    @Test
+    void fromDecimalRejectsMoreThanTwoDecimals() {
+        assertThrows(ArithmeticException.class, () -> Money.fromDecimal(new BigDecimal("25.999")));
+        assertThrows(ArithmeticException.class, () -> Money.fromDecimal(new BigDecimal("0.001")));
+    }
+
+    @Test
+    void fromDecimalRejectsOverflow() {
+        assertThrows(ArithmeticException.class, () -> Money.fromDecimal(new BigDecimal("1e30")));
+    }
+
+    @Test
+    void toDecimalKeepsScale() {
+        assertEquals(new BigDecimal("25.99"), Money.toDecimal(2599));
+        assertEquals(new BigDecimal("25.00"), Money.toDecimal(2500));
+        assertEquals(new BigDecimal("0.05"), Money.toDecimal(5));
+    }
+
+    @Test
+    void roundTrip() {
+        for (long minor : new long[]{0, 1, 99, 100, 2599, Long.MAX_VALUE, -2599}) {
+            assertEquals(minor, Money.fromDecimal(Money.toDecimal(minor)));
+        }
+    }
+
+    @Test
+    void toDoubleForLegacyBoundary() {
+        assertEquals(25.99, Money.toDouble(2599));
+        assertEquals(0.1, Money.toDouble(10));
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.demo.store.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RateLimiterTest {
+
+    @Test
+    void rejectsNonPositiveRate() {
+        assertThrows(IllegalArgumentException.class, () -> new RateLimiter(0));
+        assertThrows(IllegalArgumentException.class, () -> new RateLimiter(-1));
+    }
+
+    @Test
+    void firstPermitIsImmediate() throws InterruptedException {
+        RateLimiter limiter = new RateLimiter(1); // 1 permit/giây
+        long start = System.nanoTime();
+        limiter.acquire();
+        assertTrue(elapsedMillis(start) < 500);
+    }
+
+    @Test
+    void spacesPermitsEvenly() throws InterruptedException {
+        RateLimiter limiter = new RateLimiter(20); // 50ms / permit
+        long start = System.nanoTime();
+        for (int i = 0; i < 5; i++) {
+            limiter.acquire();
+        }
+        // permit đầu ngay lập tức, 4 permit sau cách nhau 50ms
+        assertTrue(elapsedMillis(start) >= 190, "elapsed " + elapsedMillis(start));
+    }
+
+    @Test
+    void doesNotAccumulatePermitsWhileIdle() throws InterruptedException {
+        RateLimiter limiter = new RateLimiter(10); // 100ms / permit
+        limiter.acquire();
+        Thread.sleep(500); // rảnh 5 khe
+        long start = System.nanoTime();
+        limiter.acquire();
+        limiter.acquire();
+        limiter.acquire();
+        // Không được "dồn" 5 permit: 3 lần acquire vẫn phải chờ ~2 khe
+        assertTrue(elapsedMillis(start) >= 190, "elapsed " + elapsedMillis(start));
+    }
+
+    @Test
+    void sharesRateAcrossThreads() throws InterruptedException {
+        RateLimiter limiter = new RateLimiter(50); // 20ms / permit
+        int threads = 4;
+        int perThread = 5;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch done = new CountDownLatch(threads);
+        long start = System.nanoTime();
+        for (int t = 0; t < threads; t++) {
+            pool.execute(() -> {
+                try {
+                    for (int i = 0; i < perThread; i++) {
+                        limiter.acquire();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        pool.shutdown();
+        // 20 permit chung 1 limiter -> ít nhất 19 khe * 20ms
+        assertTrue(elapsedMillis(start) >= 370, "elapsed " + elapsedMillis(start));
+    }
+
+    private static long elapsedMillis(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+}